@@ -0,0 +1,89 @@
+/**
+ * Benchmarks finding the options of typos of URL's of governmentURLs.txt
+ * with a BKTree against getOptions of a Trie, sequentially and in parallel.
+ * Besides the time per query, the nodes every search visited are counted,
+ * and reported as nodes and queries per iteration, so nodes divided by
+ * queries is the number of nodes a query visits.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BKTreeBenchmark {
+
+    private static final int TYPOS = 64;
+
+    @Param({"1", "2", "3", "4", "6", "8"})
+    int maxEdit;
+
+    Trie trie;
+    BKTree tree;
+    String[] typos;
+    int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Visits {
+        public long nodes;
+        public long queries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+            queries = 0;
+            QueryStats.current().reset();
+        }
+
+        void count() {
+            QueryStats stats = QueryStats.current();
+            nodes += stats.nodes;
+            queries++;
+            stats.reset();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        ArrayList<String> list = Fixtures.readURLs();
+        Reader reader = new Reader();
+        trie = reader.readInFile(Fixtures.URL_FILE);
+        tree = reader.readInBKTree(Fixtures.URL_FILE);
+        typos = Fixtures.generateTypos(list, TYPOS, maxEdit);
+    }
+
+    @Benchmark
+    public ArrayList<String> trie(Visits visits) {
+        next = (next + 1) % TYPOS;
+        ArrayList<String> options = trie.getOptions(typos[next], maxEdit);
+        visits.count();
+        return options;
+    }
+
+    @Benchmark
+    public ArrayList<String> bkTree(Visits visits) {
+        next = (next + 1) % TYPOS;
+        ArrayList<String> options = tree.getOptions(typos[next], maxEdit);
+        visits.count();
+        return options;
+    }
+
+    @Benchmark
+    public ArrayList<String> bkTreeParallel(Visits visits) {
+        next = (next + 1) % TYPOS;
+        ArrayList<String> options = tree.getOptions(typos[next], maxEdit,
+                                                    ForkJoinPool.commonPool());
+        visits.count();
+        return options;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Benchmarks completing prefixes of URL's of governmentURLs.txt, as they are
+ * typed: complete on the prefixes themselves and completeFuzzy on prefixes
+ * with one typo.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompletionBenchmark {
+
+    private static final int PREFIXES = 256;
+    private static final int K = 5;
+
+    @Param({"1", "2", "4", "8"})
+    int length;
+
+    Trie dictionary;
+    String[] prefixes;
+    String[] typos;
+    int next;
+
+    @Setup
+    public void setup() {
+        ArrayList<String> list = Fixtures.readURLs();
+        dictionary = new Reader().readInFile(Fixtures.URL_FILE);
+        String[] urls = Fixtures.pickURLs(list, PREFIXES);
+        String[] typed = Fixtures.generateTypos(urls, 1);
+        prefixes = new String[PREFIXES];
+        typos = new String[PREFIXES];
+        for (int i = 0; i < PREFIXES; i++) {
+            prefixes[i] = urls[i].substring(0, Math.min(length, urls[i].length()));
+            typos[i] = typed[i].substring(0, Math.min(length, typed[i].length()));
+        }
+    }
+
+    @Benchmark
+    public ArrayList<String> complete() {
+        next = (next + 1) % PREFIXES;
+        return dictionary.complete(prefixes[next], K);
+    }
+
+    @Benchmark
+    public ArrayList<String> completeFuzzy() {
+        next = (next + 1) % PREFIXES;
+        return dictionary.completeFuzzy(typos[next], K, 1);
+    }
+}
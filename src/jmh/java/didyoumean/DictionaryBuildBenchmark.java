@@ -0,0 +1,56 @@
+/**
+ * Benchmarks building the dictionary from governmentURLs.txt: reading and
+ * building the Trie together, only reading the URL's sorted, and building 
+ * the Trie from URL's that were already read, by inserting them one by one
+ * or bottom-up from the sorted URL's.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DictionaryBuildBenchmark {
+
+    ArrayList<String> urls;
+    String[] sorted;
+
+    @Setup
+    public void setup() {
+        urls = Fixtures.readURLs();
+        sorted = new Reader().readInSortedURLs(Fixtures.URL_FILE);
+    }
+
+    @Benchmark
+    public Trie readInFile() {
+        return new Reader().readInFile(Fixtures.URL_FILE);
+    }
+
+    @Benchmark
+    public String[] readInSortedURLs() {
+        return new Reader().readInSortedURLs(Fixtures.URL_FILE);
+    }
+
+    @Benchmark
+    public Trie fromSorted() {
+        return Trie.fromSorted(sorted);
+    }
+
+    @Benchmark
+    public Trie put() {
+        Trie dictionary = new Trie();
+        for (int i = 0; i < urls.size(); i++) {
+            dictionary.put(urls.get(i));
+        }
+        return dictionary;
+    }
+}
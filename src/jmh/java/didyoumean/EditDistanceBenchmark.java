@@ -0,0 +1,61 @@
+/**
+ * Benchmarks the edit distance between typo's and the URL's they were made
+ * from: the full matrix of calcEditDistance, the banded editDistance and the
+ * bit-parallel editDistance.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EditDistanceBenchmark {
+
+    private static final int PAIRS = 256;
+    private static final int EDITS = 3;
+
+    EditDistanceCalc edCalc;
+    String[] typos;
+    String[] urls;
+    long[][] masks;
+    int next;
+
+    @Setup
+    public void setup() {
+        edCalc = new EditDistanceCalc();
+        ArrayList<String> list = Fixtures.readURLs();
+        urls = Fixtures.pickURLs(list, PAIRS);
+        typos = Fixtures.generateTypos(urls, EDITS);
+        masks = new long[PAIRS][];
+        for (int i = 0; i < PAIRS; i++) {
+            masks[i] = edCalc.calcPatternMasks(typos[i]);
+        }
+    }
+
+    @Benchmark
+    public int[][] calcEditDistance() {
+        next = (next + 1) % PAIRS;
+        return edCalc.calcEditDistance(typos[next], urls[next]);
+    }
+
+    @Benchmark
+    public int bandedEditDistance() {
+        next = (next + 1) % PAIRS;
+        return edCalc.editDistance(typos[next], urls[next], EDITS);
+    }
+
+    @Benchmark
+    public int bitParallelEditDistance() {
+        next = (next + 1) % PAIRS;
+        return edCalc.editDistance(typos[next], masks[next], urls[next], EDITS);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Fixtures shared by the benchmarks: the URL's of governmentURLs.txt and
+ * sets of typo's generated from them. The typo's are generated with a fixed
+ * seed, so every run of the benchmarks uses the same ones.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class Fixtures {
+
+    public static final String URL_FILE = Reader.DATA_PATH
+        + "URLs/governmentURLs.txt";
+
+    private static final String URL_ALPHABET = 
+        "abcdefghijklmnopqrstuvwxyz0123456789.-/";
+    private static final long SEED = 1324;
+
+    /**
+     * Returns all the URL's of governmentURLs.txt.
+     *
+     * @return URL's of governmentURLs.txt
+     */
+    public static ArrayList<String> readURLs() {
+        return new Reader().readInURLs(URL_FILE);
+    }
+
+    /**
+     * Takes an ArrayList<String> urls and an int count as input. Pick count
+     * URL's from urls and return them.
+     *
+     * @param  urls  URL's to pick from
+     * @param  count number of URL's to pick
+     * @return       picked URL's
+     */
+    public static String[] pickURLs(ArrayList<String> urls, int count) {
+        Random random = new Random(SEED);
+        String[] picked = new String[count];
+        for (int i = 0; i < count; i++) {
+            picked[i] = urls.get(random.nextInt(urls.size()));
+        }
+        return picked;
+    }
+
+    /**
+     * Takes an ArrayList<String> urls, an int count and an int edits as
+     * input. Pick count URL's from urls with pickURLs and make typo's of 
+     * them with edits edits each. Return the typo's.
+     *
+     * @param  urls  URL's to make typo's of
+     * @param  count number of typo's to make
+     * @param  edits number of edits per typo
+     * @return       generated typo's
+     */
+    public static String[] generateTypos(ArrayList<String> urls, int count,
+                                         int edits) {
+        return generateTypos(pickURLs(urls, count), edits);
+    }
+
+    /**
+     * Takes a String[] sources and an int edits as input. Apply edits random
+     * insertions, deletions, substitutions or transpositions to each of the
+     * sources. Return the typo's, the typo at every index is made from the 
+     * source at that index.
+     *
+     * @param  sources URL's to make typo's of
+     * @param  edits   number of edits per typo
+     * @return         generated typo's
+     */
+    public static String[] generateTypos(String[] sources, int edits) {
+        Random random = new Random(SEED + edits);
+        String[] typos = new String[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            StringBuilder typo = new StringBuilder(sources[i]);
+            for (int j = 0; j < edits; j++) {
+                applyEdit(typo, random);
+            }
+            typos[i] = typo.toString();
+        }
+        return typos;
+    }
+
+    /**
+     * Takes a StringBuilder typo and a Random random as input. Apply one
+     * random edit to typo.
+     *
+     * @param typo   typo to edit
+     * @param random source of the edit and its position
+     */
+    private static void applyEdit(StringBuilder typo, Random random) {
+        char letter = URL_ALPHABET.charAt(random.nextInt(URL_ALPHABET.length()));
+        int edit = typo.length() < 2 ? 0 : random.nextInt(4);
+        int index = random.nextInt(Math.max(typo.length(), 1));
+        if (edit == 0) {
+            typo.insert(index, letter);
+        } else if (edit == 1) {
+            typo.deleteCharAt(index);
+        } else if (edit == 2) {
+            typo.setCharAt(index, letter);
+        } else {
+            index = Math.min(index, typo.length() - 2);
+            char first = typo.charAt(index);
+            typo.setCharAt(index, typo.charAt(index + 1));
+            typo.setCharAt(index + 1, first);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Benchmarks reading a Trie while it is updated. In the readUnderWrite group
+ * three threads search the current Trie while one thread keeps replacing it
+ * with Trie.update, removing and adding back a batch of URL's at a time. The
+ * readOnly group runs the same searches without updates, as baseline.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LiveUpdateBenchmark {
+
+    private static final int TYPOS = 64;
+    private static final int EDITS = 2;
+
+    @Param({"16", "256"})
+    int batchSize;
+
+    volatile Trie current;
+    ArrayList<String> urls;
+    String[] typos;
+    int batch;
+
+    @Setup
+    public void setup() {
+        urls = Fixtures.readURLs();
+        current = new Reader().readInFile(Fixtures.URL_FILE);
+        typos = Fixtures.generateTypos(urls, TYPOS, EDITS);
+    }
+
+    @State(Scope.Thread)
+    public static class Reading {
+        int next;
+    }
+
+    @Benchmark
+    @Group("readUnderWrite")
+    @GroupThreads(3)
+    public ArrayList<String> read(Reading reading) {
+        reading.next = (reading.next + 1) % typos.length;
+        return current.getOptions(typos[reading.next], EDITS);
+    }
+
+    @Benchmark
+    @Group("readUnderWrite")
+    @GroupThreads(1)
+    public Trie write() {
+        List<String> changed = urls.subList(batch, batch + batchSize);
+        Trie trie = current.update(changed, Collections.<String>emptyList());
+        trie = trie.update(Collections.<String>emptyList(), changed);
+        current = trie;
+        batch = (batch + batchSize) % (urls.size() - batchSize);
+        return trie;
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(3)
+    public ArrayList<String> readOnly(Reading reading) {
+        reading.next = (reading.next + 1) % typos.length;
+        return current.getOptions(typos[reading.next], EDITS);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Benchmarks finding the options of typos of URL's of governmentURLs.txt
+ * with a PartitionedIndex against getOptions of the unpartitioned Trie. The
+ * partitions only search the URL's a query is routed to, so they can miss
+ * options. Besides the time per query, the nodes every search visited are
+ * counted, and the options it found together with the options the Trie
+ * finds for the same typo. Options divided by expected is the recall, nodes
+ * divided by queries the number of nodes a query visits.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionedBenchmark {
+
+    private static final int TYPOS = 64;
+
+    @Param({"1", "2", "3", "4"})
+    int maxEdit;
+
+    Trie trie;
+    PartitionedIndex index;
+    String[] typos;
+    int[] expected;
+    int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Visits {
+        public long nodes;
+        public long queries;
+        public long options;
+        public long expected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+            queries = 0;
+            options = 0;
+            expected = 0;
+            QueryStats.current().reset();
+        }
+
+        void count(int found, int all) {
+            QueryStats stats = QueryStats.current();
+            nodes += stats.nodes;
+            queries++;
+            options += found;
+            expected += all;
+            stats.reset();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        ArrayList<String> list = Fixtures.readURLs();
+        trie = new Reader().readInFile(Fixtures.URL_FILE);
+        index = new PartitionedIndex(list);
+        typos = Fixtures.generateTypos(list, TYPOS, maxEdit);
+        expected = new int[TYPOS];
+        for (int i = 0; i < TYPOS; i++) {
+            expected[i] = trie.getOptions(typos[i], maxEdit).size();
+        }
+        QueryStats.current().reset();
+    }
+
+    @Benchmark
+    public ArrayList<String> trie(Visits visits) {
+        next = (next + 1) % TYPOS;
+        ArrayList<String> options = trie.getOptions(typos[next], maxEdit);
+        visits.count(options.size(), expected[next]);
+        return options;
+    }
+
+    @Benchmark
+    public ArrayList<String> partitioned(Visits visits) {
+        next = (next + 1) % TYPOS;
+        ArrayList<String> options = index.getOptions(typos[next], maxEdit);
+        visits.count(options.size(), expected[next]);
+        return options;
+    }
+}
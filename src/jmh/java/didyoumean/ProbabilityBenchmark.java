@@ -0,0 +1,51 @@
+/**
+ * Benchmarks calcLogProb on typo's and the URL's they were made from, 
+ * against the edit distance matrix it used to need on top of the scoring.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProbabilityBenchmark {
+
+    private static final int PAIRS = 256;
+    private static final int EDITS = 3;
+
+    EditDistanceCalc edCalc;
+    ProbabillityCalc probCalc;
+    String[] typos;
+    String[] urls;
+    int next;
+
+    @Setup
+    public void setup() {
+        edCalc = new EditDistanceCalc();
+        probCalc = new ProbabillityCalc();
+        ArrayList<String> list = Fixtures.readURLs();
+        urls = Fixtures.pickURLs(list, PAIRS);
+        typos = Fixtures.generateTypos(urls, EDITS);
+    }
+
+    @Benchmark
+    public double calcLogProb() {
+        next = (next + 1) % PAIRS;
+        return probCalc.calcLogProb(typos[next], urls[next]);
+    }
+
+    @Benchmark
+    public int[][] calcEditDistance() {
+        next = (next + 1) % PAIRS;
+        return edCalc.calcEditDistance(typos[next], urls[next]);
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Benchmarks finding the options of typos of URL's of governmentURLs.txt at
+ * high edit distances with the Trie, the QGramIndex and the HybridIndex that
+ * picks between them per query.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QGramBenchmark {
+
+    private static final int TYPOS = 256;
+
+    @Param({"2", "4", "6", "8"})
+    int maxEdit;
+
+    Trie trie;
+    QGramIndex qgrams;
+    HybridIndex hybrid;
+    String[] typos;
+    int next;
+
+    @Setup
+    public void setup() {
+        ArrayList<String> list = Fixtures.readURLs();
+        trie = new Reader().readInFile(Fixtures.URL_FILE);
+        qgrams = new QGramIndex(list);
+        hybrid = new HybridIndex(list);
+        typos = Fixtures.generateTypos(list, TYPOS, maxEdit);
+    }
+
+    @Benchmark
+    public ArrayList<String> trie() {
+        next = (next + 1) % TYPOS;
+        return trie.getOptions(typos[next], maxEdit);
+    }
+
+    @Benchmark
+    public ArrayList<String> qgrams() {
+        next = (next + 1) % TYPOS;
+        return qgrams.getOptions(typos[next], maxEdit);
+    }
+
+    @Benchmark
+    public ArrayList<String> hybrid() {
+        next = (next + 1) % TYPOS;
+        return hybrid.getOptions(typos[next], maxEdit);
+    }
+}
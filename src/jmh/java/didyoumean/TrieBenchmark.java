@@ -0,0 +1,58 @@
+/**
+ * Benchmarks looking up URL's in a Trie of governmentURLs.txt: contains for
+ * URL's that are in it and typo's that aren't, and getOptions for typo's
+ * with as many edits as maxEdit.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrieBenchmark {
+
+    private static final int TYPOS = 64;
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8"})
+    int maxEdit;
+
+    Trie dictionary;
+    String[] urls;
+    String[] typos;
+    int next;
+
+    @Setup
+    public void setup() {
+        ArrayList<String> list = Fixtures.readURLs();
+        dictionary = new Reader().readInFile(Fixtures.URL_FILE);
+        urls = list.toArray(new String[0]);
+        typos = Fixtures.generateTypos(list, TYPOS, maxEdit);
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        next = (next + 1) % urls.length;
+        return dictionary.contains(urls[next]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        next = (next + 1) % typos.length;
+        return dictionary.contains(typos[next]);
+    }
+
+    @Benchmark
+    public ArrayList<String> getOptions() {
+        next = (next + 1) % typos.length;
+        return dictionary.getOptions(typos[next], maxEdit);
+    }
+}
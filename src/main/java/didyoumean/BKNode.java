@@ -0,0 +1,86 @@
+/**
+ * Implementation of a node in a BKTree
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+public class BKNode {
+
+    private static final int[] NO_DISTANCES = new int[0];
+    private static final BKNode[] NO_CHILDREN = new BKNode[0];
+
+    String word;
+    int[] distances;
+    BKNode[] children;
+    int size;
+
+    /**
+     * Constructor of BKNode. Takes a String word as input. Initializes
+     * children. Set word to word.
+     *
+     * @param word word of the BKNode
+     */
+    public BKNode(String word) {
+        this.word = word;
+        distances = NO_DISTANCES;
+        children = NO_CHILDREN;
+        size = 1;
+    }
+
+    /**
+     * Returns the word of the BKNode.
+     *
+     * @return word of the BKNode
+     */
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * Returns the distances of the children of the BKNode to its word,
+     * ascending.
+     *
+     * @return distances of the children, in the order of getChildren
+     */
+    public int[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * Returns the children of the BKNode, sorted on their distance.
+     *
+     * @return children of the BKNode
+     */
+    public BKNode[] getChildren() {
+        return children;
+    }
+
+    /**
+     * Returns the number of words in the subtree of the BKNode, its own
+     * included.
+     *
+     * @return number of words below the BKNode
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Takes an int[] distances and a BKNode[] children, in the same order,
+     * as input. Set the children of the BKNode and add their sizes to its
+     * size.
+     *
+     * @param distances distances of the children to the word, ascending
+     * @param children  children of the BKNode
+     */
+    public void setChildren(int[] distances, BKNode[] children) {
+        this.distances = distances;
+        this.children = children;
+        size = 1;
+        for (int i = 0; i < children.length; i++) {
+            size += children[i].size;
+        }
+    }
+}
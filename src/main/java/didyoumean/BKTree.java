@@ -0,0 +1,430 @@
+/**
+ * Implementation of a BK-tree (Burkhard and Keller) of URL's. Every node
+ * holds a URL and its children are keyed on their distance to it, all the
+ * URL's in the subtree of a child have that distance to the URL of the node.
+ * For an input at distance d of a node, a URL within maxEdit of the input
+ * is at a distance between d - maxEdit and d + maxEdit of the node by the
+ * triangle inequality, so only the children with those keys are searched.
+ *
+ * The triangle inequality doesn't hold for the edit distance of
+ * EditDistanceCalc.editDistance, which can't edit a transposed pair again,
+ * so the tree is keyed on the Damerau-Levenshtein distance of
+ * EditDistanceCalc.damerauDistance instead. That distance is never more
+ * than editDistance, so the URL's found within maxEdit of it include every
+ * option, and only those within maxEdit of editDistance as well are kept.
+ *
+ * The tree can be written to a file, and read again with
+ * Reader.readInBKTreeSnapshot, which starts with a header of three ints:
+ * MAGIC, VERSION and the number of nodes. The nodes follow in preorder, a
+ * node is its URL, the number of its children, and for every child its
+ * distance followed by the child.
+ *
+ * Usage: java didyoumean.BKTree [urlFile] [treeFile]
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class BKTree implements URLDictionary {
+
+    public static final int MAGIC = 0x44594D42;
+    public static final int VERSION = 1;
+
+    private static final String URL_PATH = Reader.DATA_PATH + "URLs/";
+    private static final int PARALLEL_THRESHOLD = 1024;
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+    BKNode root;
+    EditDistanceCalc edCalc;
+
+    public static void main(String[] args) {
+        String urlFile = URL_PATH + "governmentURLs.txt";
+        String treeFile = URL_PATH + "governmentURLs.bktree";
+        if (args.length > 0) {
+            urlFile = args[0];
+        }
+        if (args.length > 1) {
+            treeFile = args[1];
+        }
+        new Reader().readInBKTree(urlFile).write(treeFile);
+    }
+
+    /**
+     * Constructor of BKTree. Takes a BKNode root as input, null for an empty
+     * tree.
+     *
+     * @param root root of the BKTree
+     */
+    public BKTree(BKNode root) {
+        this.root = root;
+        edCalc = new EditDistanceCalc();
+    }
+
+    /**
+     * Takes a String[] words as input. Build a BKTree of words in bulk
+     * instead of inserting them one by one: the first word becomes the
+     * root, the other words are grouped on their distance to it and every
+     * group is built into a child the same way. Groups of at least
+     * PARALLEL_THRESHOLD words are built as separate tasks in the common
+     * ForkJoinPool. Duplicate words are skipped. Return the BKTree.
+     *
+     * @param  words words to build the BKTree of
+     * @return       BKTree containing every word of words
+     */
+    public static BKTree fromWords(String[] words) {
+        if (words.length == 0) {
+            return new BKTree(null);
+        }
+        return new BKTree(ForkJoinPool.commonPool().invoke(new BuildTask(words)));
+    }
+
+    /**
+     * Takes a String fileName as input. Write the tree to fileName in
+     * preorder, after a header with the number of nodes.
+     *
+     * @param fileName filename of the file to write the tree to
+     */
+    public void write(String fileName) {
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(fileName), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(root == null ? 0 : root.getSize());
+            if (root != null) {
+                writeNode(root, out);
+            }
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+    }
+
+    /**
+     * Takes a BKNode node and a DataOutputStream out as input. Write the
+     * word of node and its number of children, then every child after its
+     * distance.
+     *
+     * @param node node to write
+     * @param out  stream to write node to
+     */
+    private static void writeNode(BKNode node, DataOutputStream out)
+        throws IOException {
+        BKNode[] children = node.getChildren();
+        int[] distances = node.getDistances();
+        out.writeUTF(node.getWord());
+        out.writeInt(children.length);
+        for (int i = 0; i < children.length; i++) {
+            out.writeInt(distances[i]);
+            writeNode(children[i], out);
+        }
+    }
+
+    /**
+     * Takes a DataInputStream in as input, positioned after the header
+     * written by write. Read a node and its children in preorder. Return
+     * the node.
+     *
+     * @param  in stream to read the node from
+     * @return    node read from in
+     */
+    static BKNode readNode(DataInputStream in) throws IOException {
+        BKNode node = new BKNode(in.readUTF());
+        int childCount = in.readInt();
+        int[] distances = new int[childCount];
+        BKNode[] children = new BKNode[childCount];
+        for (int i = 0; i < childCount; i++) {
+            distances[i] = in.readInt();
+            children[i] = readNode(in);
+        }
+        node.setChildren(distances, children);
+        return node;
+    }
+
+    /**
+     * Takes a String word as input. Walk down from the root, to the child
+     * with the distance of word to every node, until a node is word. Return
+     * true if one is.
+     *
+     * @param  word word to be checked if the tree contains it
+     * @return      true if the tree contains word, false if it doesn't
+     */
+    public boolean contains(String word) {
+        BKNode node = root;
+        while (node != null) {
+            int distance = edCalc.damerauDistance(word, node.getWord());
+            if (distance == 0) {
+                return true;
+            }
+            int index = Arrays.binarySearch(node.getDistances(), distance);
+            node = index < 0 ? null : node.getChildren()[index];
+        }
+        return false;
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Search the tree
+     * from the root, only going into the children whose distance can hold
+     * an option. Count the nodes visited in the QueryStats of the current
+     * thread. Return the words within maxEdit of userInput.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all words in the tree within maxEdit of userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        ArrayList<String> result = new ArrayList<String>();
+        if (root != null) {
+            long[] masks = edCalc.calcPatternMasks(userInput);
+            QueryStats.current().nodes += searchNode(root, userInput, masks,
+                                                     maxEdit, result);
+        }
+        return result;
+    }
+
+    /**
+     * Takes a String userInput, an int maxEdit and a ForkJoinPool pool as
+     * input. Finds the same options as getOptions, but the subtrees are
+     * searched as separate tasks in pool. Subtrees with less than
+     * PARALLEL_THRESHOLD words are searched sequentially within one task.
+     * Return the options.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @param  pool      pool to run the tasks in
+     * @return           all words in the tree within maxEdit of userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit,
+                                        ForkJoinPool pool) {
+        if (root == null) {
+            return new ArrayList<String>();
+        }
+        SearchTask task = new SearchTask(root, userInput,
+            edCalc.calcPatternMasks(userInput), maxEdit);
+        ArrayList<String> result = pool.invoke(task);
+        QueryStats.current().nodes += task.visited;
+        return result;
+    }
+
+    /**
+     * Takes a BKNode node, a String userInput, a long[] masks of userInput,
+     * an int maxEdit and an ArrayList<String> result as input. Check node
+     * and search its children at a distance from d - maxEdit up to 
+     * d + maxEdit, where d is the distance check returns. Return the number
+     * of nodes visited, node included.
+     *
+     * @param  node      node to search
+     * @param  userInput input to find the options for
+     * @param  masks     masks of userInput from calcPatternMasks
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @param  result    options found so far
+     * @return           number of nodes visited
+     */
+    private int searchNode(BKNode node, String userInput, long[] masks,
+                           int maxEdit, ArrayList<String> result) {
+        int distance = check(node, userInput, masks, maxEdit, result);
+        int visited = 1;
+        BKNode[] children = node.getChildren();
+        int[] distances = node.getDistances();
+        for (int i = firstChild(distances, distance - maxEdit);
+             i < children.length && distances[i] <= distance + maxEdit; i++) {
+            visited += searchNode(children[i], userInput, masks, maxEdit,
+                                  result);
+        }
+        return visited;
+    }
+
+    /**
+     * Takes a BKNode node, a String userInput, a long[] masks of userInput,
+     * an int maxEdit and an ArrayList<String> result as input. Add the word
+     * of node to result if its edit distance to userInput is within 
+     * maxEdit, calculated with the bit-parallel editDistance. Only the
+     * children need the Damerau-Levenshtein distance, so return UNREACHABLE
+     * without calculating it if node has no children, or if the difference
+     * in length alone puts every child out of reach. Else return it.
+     *
+     * @param  node      node to check
+     * @param  userInput input to find the options for
+     * @param  masks     masks of userInput from calcPatternMasks
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @param  result    options found so far
+     * @return           Damerau-Levenshtein distance of userInput to node,
+     *                   UNREACHABLE if no child has to be searched
+     */
+    private int check(BKNode node, String userInput, long[] masks, 
+                      int maxEdit, ArrayList<String> result) {
+        String word = node.getWord();
+        if (edCalc.editDistance(userInput, masks, word, maxEdit) <= maxEdit) {
+            result.add(word);
+        }
+        int[] distances = node.getDistances();
+        int lengthDifference = Math.abs(userInput.length() - word.length());
+        if (distances.length == 0
+            || lengthDifference - maxEdit > distances[distances.length-1]) {
+            return UNREACHABLE;
+        }
+        return edCalc.damerauDistance(userInput, word);
+    }
+
+    /**
+     * Takes an int[] distances, ascending, and an int from as input. Return
+     * the index of the first distance of at least from.
+     *
+     * @param  distances distances of the children of a node
+     * @param  from      lowest distance to search
+     * @return           index of the first child to search
+     */
+    private static int firstChild(int[] distances, int from) {
+        int index = Arrays.binarySearch(distances, from);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    /**
+     * Task building the subtree of the first of a group of words, whose
+     * other words all have the same distance to its parent.
+     */
+    private static class BuildTask extends RecursiveTask<BKNode> {
+
+        private static final long serialVersionUID = 1L;
+
+        String[] words;
+
+        /**
+         * Constructor of BuildTask. Takes a String[] words as input, the
+         * first of which becomes the node.
+         */
+        BuildTask(String[] words) {
+            this.words = words;
+        }
+
+        /**
+         * Calculate the distance of every other word to the first and group
+         * them on it, skipping duplicates of the first. Build a child of
+         * every group, forking a task for the groups of at least
+         * PARALLEL_THRESHOLD words. Return the node.
+         *
+         * @return node holding the first word with every other word below it
+         */
+        protected BKNode compute() {
+            EditDistanceCalc edCalc = new EditDistanceCalc();
+            BKNode node = new BKNode(words[0]);
+            int[] wordDistances = new int[words.length];
+            int[] groupSizes = new int[1];
+            for (int i = 1; i < words.length; i++) {
+                int distance = edCalc.damerauDistance(words[0], words[i]);
+                wordDistances[i] = distance;
+                if (distance >= groupSizes.length) {
+                    groupSizes = Arrays.copyOf(groupSizes, distance + 1);
+                }
+                groupSizes[distance]++;
+            }
+
+            int groupCount = 0;
+            String[][] groups = new String[groupSizes.length][];
+            for (int distance = 1; distance < groupSizes.length; distance++) {
+                if (groupSizes[distance] > 0) {
+                    groups[distance] = new String[groupSizes[distance]];
+                    groupSizes[distance] = 0;
+                    groupCount++;
+                }
+            }
+            for (int i = 1; i < words.length; i++) {
+                int distance = wordDistances[i];
+                if (distance > 0) {
+                    groups[distance][groupSizes[distance]++] = words[i];
+                }
+            }
+
+            int[] distances = new int[groupCount];
+            BKNode[] children = new BKNode[groupCount];
+            BuildTask[] tasks = new BuildTask[groupCount];
+            for (int distance = 1, i = 0; distance < groups.length; distance++) {
+                if (groups[distance] == null) {
+                    continue;
+                }
+                distances[i] = distance;
+                tasks[i] = new BuildTask(groups[distance]);
+                if (groups[distance].length >= PARALLEL_THRESHOLD) {
+                    tasks[i].fork();
+                } else {
+                    children[i] = tasks[i].compute();
+                }
+                i++;
+            }
+            for (int i = 0; i < groupCount; i++) {
+                if (children[i] == null) {
+                    children[i] = tasks[i].join();
+                }
+            }
+            node.setChildren(distances, children);
+            return node;
+        }
+    }
+
+    /**
+     * Task searching the subtree of one BKNode for getOptions with a
+     * ForkJoinPool.
+     */
+    private class SearchTask extends RecursiveTask<ArrayList<String>> {
+
+        private static final long serialVersionUID = 1L;
+
+        BKNode node;
+        String userInput;
+        long[] masks;
+        int maxEdit;
+        int visited;
+
+        /**
+         * Constructor of SearchTask. Takes a BKNode node, a String 
+         * userInput, a long[] masks of userInput and an int maxEdit as 
+         * input. The masks are only read, so all tasks share them.
+         */
+        SearchTask(BKNode node, String userInput, long[] masks, int maxEdit) {
+            this.node = node;
+            this.userInput = userInput;
+            this.masks = masks;
+            this.maxEdit = maxEdit;
+        }
+
+        /**
+         * If the subtree of node is small, search it sequentially. Else
+         * check node itself and fork a task for every child that can hold
+         * an option. Join the tasks and add their options to result. Count
+         * the nodes visited by this task and the tasks it forked in visited.
+         * Return result.
+         *
+         * @return all words below node within maxEdit of userInput
+         */
+        protected ArrayList<String> compute() {
+            ArrayList<String> result = new ArrayList<String>();
+            if (node.getSize() < PARALLEL_THRESHOLD) {
+                visited += searchNode(node, userInput, masks, maxEdit, result);
+                return result;
+            }
+
+            int distance = check(node, userInput, masks, maxEdit, result);
+            visited++;
+            ArrayList<SearchTask> tasks = new ArrayList<SearchTask>();
+            BKNode[] children = node.getChildren();
+            int[] distances = node.getDistances();
+            for (int i = firstChild(distances, distance - maxEdit);
+                 i < children.length && distances[i] <= distance + maxEdit; i++) {
+                SearchTask task = new SearchTask(children[i], userInput, masks,
+                                                 maxEdit);
+                task.fork();
+                tasks.add(task);
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                result.addAll(tasks.get(i).join());
+                visited += tasks.get(i).visited;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Finds the suggestions for a stream of URL's, one URL per line, with a pool
+ * of workers sharing one DidYouMean. Results are written as soon as they are
+ * found, or in the order of the input if ordered is set. At most window URL's
+ * are read ahead of the results written, so memory stays the same no matter
+ * how long the input is.
+ *
+ * Every result is one line of tab separated values: the URL, followed by
+ * "correct", "not found" or the suggestions, most likely first.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class BatchSuggester {
+
+    static final int WINDOW_PER_THREAD = 64;
+
+    DidYouMean didYouMean;
+    int threads;
+    boolean ordered;
+    Semaphore window;
+    HashMap<Long, String> pending;
+    long next;
+    PrintStream out;
+
+    /**
+     * Constructor of BatchSuggester. Takes a DidYouMean didYouMean that is
+     * already set up, an int threads and a boolean ordered as input. Throw
+     * an IllegalArgumentException if threads is less than 1.
+     *
+     * @param didYouMean DidYouMean to find the suggestions with
+     * @param threads    number of workers
+     * @param ordered    true if results have to be written in input order
+     */
+    public BatchSuggester(DidYouMean didYouMean, int threads, boolean ordered) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                "the batch needs at least 1 thread, not " + threads);
+        }
+        this.didYouMean = didYouMean;
+        this.threads = threads;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Takes a String fileName and a PrintStream out as input. Read the URL's
+     * from fileName, or from stdin if fileName is "-", and write their
+     * results to out. Both are closed when the results are written, or when
+     * reading fails.
+     *
+     * @param fileName filename of file containing URL's, "-" for stdin
+     * @param out      stream to write the results to
+     */
+    public void run(String fileName, PrintStream out) {
+        try (PrintStream results = out;
+             BufferedReader in = fileName.equals("-")
+                 ? new BufferedReader(new InputStreamReader(System.in))
+                 : new BufferedReader(new FileReader(fileName))) {
+            run(in, results);
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+    }
+
+    /**
+     * Takes a BufferedReader in and a PrintStream out as input. Read in line
+     * by line. Wait for a place in the window, then give the URL on the line
+     * a sequence number and hand it to a worker. When all URL's are handed
+     * out, wait for the workers to finish.
+     *
+     * @param in  reader to read the URL's from
+     * @param out stream to write the results to
+     */
+    public void run(BufferedReader in, PrintStream out) throws IOException {
+        this.out = out;
+        window = new Semaphore(threads * WINDOW_PER_THREAD);
+        pending = new HashMap<Long, String>();
+        next = 0;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long sequence = 0;
+
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String url = line.trim();
+                if (url.equals("")) {
+                    continue;
+                }
+                window.acquire();
+                long number = sequence++;
+                workers.execute(() -> write(number, suggest(url)));
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        out.flush();
+    }
+
+    /**
+     * Takes a String url as input. Find the suggestions for url and return
+     * them as one line of tab separated values. If finding them fails, the
+     * line says so, so the results after it can still be written in order.
+     *
+     * @param  url URL to find the suggestions for
+     * @return     result line for url
+     */
+    private String suggest(String url) {
+        StringBuilder line = new StringBuilder(url);
+        try {
+            Suggestions suggestions = didYouMean.suggest(url);
+            if (suggestions.isCorrect()) {
+                line.append("\tcorrect");
+            } else if (suggestions.isNotFound()) {
+                line.append("\tnot found");
+            }
+            ArrayList<String> options = suggestions.getOptions();
+            for (int i = 0; i < options.size(); i++) {
+                line.append('\t').append(options.get(i));
+            }
+        } catch (RuntimeException e) {
+            line.append("\terror: ").append(e);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Takes a long number and a String result as input. If the results don't
+     * have to be ordered, write result and free its place in the window.
+     * Else keep result in pending, and write every pending result that is
+     * next in order, freeing their places.
+     *
+     * @param number sequence number of the URL of result
+     * @param result result line to write
+     */
+    private synchronized void write(long number, String result) {
+        if (!ordered) {
+            out.println(result);
+            window.release();
+            return;
+        }
+        pending.put(number, result);
+        String nextResult;
+        while ((nextResult = pending.remove(next)) != null) {
+            out.println(nextResult);
+            next++;
+            window.release();
+        }
+    }
+}
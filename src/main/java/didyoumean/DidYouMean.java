@@ -0,0 +1,608 @@
+/**
+ * DidYouMean implements a URL-checker. It reads in all the files and user input.
+ * Then computes the edit distance and the probabilities. And returns the
+ * the most likely options.
+ * 
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class DidYouMean {
+
+    private static final int MAX_EDIT_DISTANCE = 3;
+    private static final int MAX_ESCALATED_EDIT_DISTANCE = 8;
+    private static final int NUMBER_OF_SUGGESTIONS = 3;
+    private static final int SYM_SPELL_DELETES = 2;
+    private static final int CACHE_SIZE = 10000;
+    private static final String URL_PATH = Reader.DATA_PATH + "URLs/";
+    private static final List<String> ENGINES = List.of(
+        "trie", "symspell", "partitioned", "qgram", "bktree", "offheap");
+    private static final String USAGE = "Usage: didyoumean.DidYouMean "
+        + "[-engine " + String.join("|", ENGINES) + "] [-deletes n] "
+        + "[-weighted] [-parallel] [-cache n] [-shards dir] "
+        + "[-server port | -batch file|- [-ordered] [-threads n]]";
+
+    volatile URLDictionary dictionary;
+    SuggestionCache cache;
+    int cacheSize = CACHE_SIZE;
+    boolean weighted;
+    boolean parallel;
+    String engine = "trie";
+    int deletes = SYM_SPELL_DELETES;
+    int port;
+    String batch;
+    boolean ordered;
+    int threads = Runtime.getRuntime().availableProcessors();
+    String shardPath;
+    Reader rd;
+    EditDistanceCalc edCalc;
+    ProbabillityCalc probCalc;
+
+    public static void main(String[] args) {
+        DidYouMean s = new DidYouMean();
+        try {
+            s.readArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            return;
+        }
+        s.run();
+    }
+
+    /**
+     * Takes a String[] args as input. Set weighted if args contains 
+     * -weighted and parallel if it contains -parallel. Set engine to the 
+     * value after -engine, which is either trie, symspell, partitioned, 
+     * qgram, bktree or offheap. Set deletes to the value after -deletes, the
+     * number of deletions the symspell engine stores per URL. Set port to 
+     * the value after -server, the port to serve suggestions on. Set batch 
+     * to the value after -batch, the file of URL's to suggest for, with 
+     * -ordered and -threads setting ordered and threads for it. Set 
+     * cacheSize to the value after -cache. Set shardPath to the value after
+     * -shards, the directory with a list of URL's for every shard. Throw an
+     * IllegalArgumentException if engine isn't one of ENGINES, if threads 
+     * is less than 1, or if -weighted is combined with an engine that doesn't keep the weights of
+     * the URL's.
+     *
+     * @param args arguments the program was started with
+     */
+    private void readArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-weighted")) {
+                weighted = true;
+            } else if (args[i].equals("-parallel")) {
+                parallel = true;
+            } else if (args[i].equals("-engine") && i+1 < args.length) {
+                engine = args[++i];
+            } else if (args[i].equals("-deletes") && i+1 < args.length) {
+                deletes = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-server") && i+1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-batch") && i+1 < args.length) {
+                batch = args[++i];
+            } else if (args[i].equals("-ordered")) {
+                ordered = true;
+            } else if (args[i].equals("-threads") && i+1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+                if (threads < 1) {
+                    throw new IllegalArgumentException("-threads needs a "
+                        + "number of at least 1, not " + threads);
+                }
+            } else if (args[i].equals("-cache") && i+1 < args.length) {
+                cacheSize = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-shards") && i+1 < args.length) {
+                shardPath = args[++i];
+            }
+        }
+        if (!ENGINES.contains(engine)) {
+            throw new IllegalArgumentException("unknown engine " + engine 
+                + ", use one of " + String.join(", ", ENGINES));
+        }
+        if (weighted && shardPath == null && !engine.equals("trie")) {
+            throw new IllegalArgumentException("-weighted needs the trie "
+                + "engine, the " + engine + " engine doesn't keep weights");
+        }
+    }
+
+    /**
+     * Main function to execute the program. If port is set, keep serving 
+     * suggestions on that port. If batch is set, write the suggestions for 
+     * every URL in batch to stdout, buffered instead of flushed on every 
+     * line. Else answer the URL the user enters.
+     */
+     private void run() {
+        setup();
+        if (port > 0) {
+            new SuggestionServer(this).start(port);
+            return;
+        }
+        if (batch != null) {
+            new BatchSuggester(this, threads, ordered).run(batch, 
+                new PrintStream(new BufferedOutputStream(System.out)));
+            System.err.println(cache);
+            System.err.print(Metrics.get().dump());
+            return;
+        }
+        String answer = rd.readUserInput();
+        printResult(suggest(answer));
+    }
+
+    /**
+     * Takes a String answer as input. Return the suggestions for answer from
+     * the whole dictionary.
+     *
+     * @param  answer URL to find suggestions for
+     * @return        suggestions for answer
+     */
+    public Suggestions suggest(String answer) {
+        return suggest(answer, null);
+    }
+
+    /**
+     * Takes a String answer and a Collection<String> shards as input. Find 
+     * the suggestions for answer in shards while counting the work in the 
+     * QueryStats of the current thread, which are left there for the caller
+     * to read. Record them and the total time in Metrics. Return the 
+     * suggestions.
+     *
+     * @param  answer URL to find suggestions for
+     * @param  shards names of the shards to search, null for all
+     * @return        suggestions for answer
+     */
+    public Suggestions suggest(String answer, Collection<String> shards) {
+        QueryStats stats = QueryStats.current();
+        stats.reset();
+        long start = System.nanoTime();
+        Suggestions suggestions = findSuggestions(answer, shards, stats);
+        stats.nanos[Metrics.TOTAL] = System.nanoTime() - start;
+        Metrics.get().record(stats);
+        return suggestions;
+    }
+
+    /**
+     * Takes a String prefix, an int k and an int maxEdit as input. Return 
+     * the k best completions of prefix for typeahead, allowing maxEdit 
+     * typo's in prefix, counting the work in the QueryStats of the current 
+     * thread. The prefix is normalized with URLParts.normalize, like the 
+     * URL's of the dictionary. Only a Trie keeps completions, so throw an 
+     * IllegalArgumentException if the dictionary isn't one, and also if k or
+     * maxEdit is negative.
+     *
+     * @param  prefix  start of the URL's to complete
+     * @param  k       number of completions to return
+     * @param  maxEdit maximum edit distance between prefix and the start of 
+     *                 a completion
+     * @return         the k best completions of prefix, best first
+     */
+    public ArrayList<String> complete(String prefix, int k, int maxEdit) {
+        QueryStats.current().reset();
+        URLDictionary current = dictionary;
+        if (!(current instanceof Trie)) {
+            throw new IllegalArgumentException("only a trie can complete");
+        }
+        return ((Trie) current).completeFuzzy(URLParts.normalize(prefix), k,
+                                                 maxEdit);
+    }
+
+    /**
+     * Takes a String answer, a Collection<String> shards and a QueryStats 
+     * stats as input. Normalize answer with URLParts.normalize to get the 
+     * URL, the same way the URL's of the dictionary and the keys of cache
+     * are normalized. If cache has Suggestions for it, return them, the 
+     * cache only holds queries of all shards. If dictionary contains the 
+     * URL, it is correct. Else find the k most likely options for answer 
+     * and sort them. If dictionary is a 
+     * ShardedDictionary, every shard finds its own k most likely options in 
+     * parallel with findShardBest, and the best of them are merged. Only 
+     * reads the dictionary and calculators, so it can be called from many 
+     * threads at once. The dictionary is read once, so the whole query uses
+     * the same one, even if it is updated meanwhile. Put the suggestions in
+     * cache, unless it was invalidated while searching. The time of every 
+     * stage is added to stats. Return the suggestions.
+     *
+     * @param  answer URL to find suggestions for
+     * @param  shards names of the shards to search, null for all
+     * @param  stats  counters of the current query
+     * @return        suggestions for answer
+     */
+    private Suggestions findSuggestions(String answer, Collection<String> shards,
+                                        QueryStats stats) {
+        String url = URLParts.normalize(answer);
+        Suggestions suggestions = shards == null ? cache.get(url) : null;
+        if (suggestions != null) {
+            stats.cached = true;
+            return suggestions;
+        }
+        long generation = cache.getGeneration();
+        URLDictionary current = dictionary;
+        ShardedDictionary sharded = current instanceof ShardedDictionary 
+            ? (ShardedDictionary) current : null;
+        long start = System.nanoTime();
+        boolean correct = sharded != null ? sharded.contains(url, shards) 
+                                          : current.contains(url);
+        stats.nanos[Metrics.LOOKUP] += System.nanoTime() - start;
+        if (correct) {
+            suggestions = new Suggestions(url, true, new ArrayList<String>());
+        } else {
+            TopK best;
+            if (sharded != null) {
+                best = findShardBest(url, sharded, shards);
+            } else {
+                best = findBest(url, current, stats);
+            }
+            start = System.nanoTime();
+            ArrayList<String> options = best.getOptions();
+            stats.nanos[Metrics.SORTING] += System.nanoTime() - start;
+            suggestions = new Suggestions(url, false, options);
+        }
+        if (shards == null) {
+            cache.put(url, suggestions, generation);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Takes a String url, a ShardedDictionary sharded and a Collection<String>
+     * shards as input. Find the best options of every shard in shards with 
+     * findBest in parallel, together with the edit distance its candidate 
+     * search stopped at. Only the shards that stopped at the lowest edit 
+     * distance have the nearest candidates, the same ones a single 
+     * dictionary of all URL's would have found, so merge their options. 
+     * The weighted search has no edit distance, so then every shard is 
+     * merged. Return the NUMBER_OF_SUGGESTIONS best of them.
+     *
+     * @param  url     URL to find options for
+     * @param  sharded dictionary to search
+     * @param  shards  names of the shards to search, null for all
+     * @return         the most likely options with their probabilities
+     */
+    private TopK findShardBest(String url, ShardedDictionary sharded,
+                               Collection<String> shards) {
+        ArrayList<Map.Entry<Integer, TopK>> results = sharded.scatter(shards,
+            trie -> {
+                QueryStats stats = QueryStats.current();
+                if (weighted) {
+                    return Map.entry(0, findBest(url, trie, stats));
+                }
+                long start = System.nanoTime();
+                ArrayList<String> options = candidateSelection(url, trie, stats);
+                stats.nanos[Metrics.CANDIDATES] += System.nanoTime() - start;
+                int stopped = sharded.getStoppedAt(url, options, 
+                    MAX_EDIT_DISTANCE, MAX_ESCALATED_EDIT_DISTANCE);
+                return Map.entry(stopped, rank(options, url, trie,
+                                               NUMBER_OF_SUGGESTIONS, stats));
+            });
+
+        int nearest = Integer.MAX_VALUE;
+        for (int i = 0; i < results.size(); i++) {
+            nearest = Math.min(nearest, results.get(i).getKey());
+        }
+        TopK best = new TopK(NUMBER_OF_SUGGESTIONS);
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).getKey() == nearest) {
+                best.merge(results.get(i).getValue());
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Takes a String url, a URLDictionary current and a QueryStats stats as
+     * input. Find the NUMBER_OF_SUGGESTIONS most likely options for url in 
+     * current. If weighted is set, they are found and ranked in one weighted
+     * search of the Trie, instead of selecting candidates first and ranking 
+     * them afterwards. Return the options with their probabilities.
+     *
+     * @param  url     URL to find options for
+     * @param  current dictionary to search
+     * @param  stats   counters of the current query
+     * @return         the most likely options with their probabilities
+     */
+    private TopK findBest(String url, URLDictionary current, QueryStats stats) {
+        long start = System.nanoTime();
+        if (weighted) {
+            TopK best = ((Trie) current).getWeightedTopK(url, 
+                NUMBER_OF_SUGGESTIONS, probCalc);
+            stats.nanos[Metrics.CANDIDATES] += System.nanoTime() - start;
+            return best;
+        }
+        ArrayList<String> options = candidateSelection(url, current, stats);
+        stats.nanos[Metrics.CANDIDATES] += System.nanoTime() - start;
+        return rank(options, url, current, NUMBER_OF_SUGGESTIONS, stats);
+    }
+    
+    /**
+     * Takes an ArrayList<String> options, a String answer, a URLDictionary
+     * current holding the options and an int k as input. Calculate the edit
+     * distance between answer and every option with the bit-parallel 
+     * editDistance and order the options on it. Go through the options from
+     * the lowest edit distance up. An option is scored by the logarithm of
+     * its weight in current, its prior, plus the log probability of answer
+     * given the option. Stop as soon as the highest score an option with 
+     * that edit distance could get, with the highest weight of current, 
+     * can't beat the k best options found, since every option after it has 
+     * at least as many edits. Skip an option if its own weight can't beat 
+     * them. Otherwise calculate its log probability and offer it to the k 
+     * best. Return the k best options. Count the options and the 
+     * probabilities calculated in stats, and the time spent scoring them.
+     *
+     * @param options options to rank
+     * @param answer  answer to retrieve probabillity between answer
+     * @param current dictionary holding the weights of the options
+     * @param k       number of options to return
+     * @param stats   counters of the current query
+     * @return        the k most probable options
+     */
+    private TopK rank(ArrayList<String> options, String answer, 
+                      URLDictionary current, int k, QueryStats stats) {
+        long start = System.nanoTime();
+        stats.candidates += options.size();
+        long[] masks = edCalc.calcPatternMasks(answer);
+        int maxEdit = 0;
+        int[] distances = new int[options.size()];
+        for (int i = 0; i < options.size(); i++) {
+            String option = options.get(i);
+            distances[i] = edCalc.editDistance(answer, masks, option,
+                Math.max(answer.length(), option.length()));
+            maxEdit = Math.max(maxEdit, distances[i]);
+        }
+
+        TopK best = new TopK(k);
+        double maxPrior = Math.log(current.getMaxWeight());
+        for (int distance = 0; distance <= maxEdit; distance++) {
+            double maxProb = probCalc.calcMaxLogProb(distance);
+            if (!best.accepts(maxPrior + maxProb)) {
+                break;
+            }
+            for (int i = 0; i < options.size(); i++) {
+                if (distances[i] != distance) {
+                    continue;
+                }
+                String option = options.get(i);
+                double prior = Math.log(current.getWeight(option));
+                if (!best.accepts(prior + maxProb)) {
+                    continue;
+                }
+                best.offer(option, prior + probCalc.calcLogProb(answer, option));
+                stats.scored++;
+            }
+        }
+        stats.nanos[Metrics.SCORING] += System.nanoTime() - start;
+        return best;
+    }
+
+    /**
+     * Takes a String answer, a URLDictionary current and a QueryStats stats
+     * as input. Selects the apropriate candidates for answer from current 
+     * according to MAX_EDIT_DISTANCE. If no
+     * candidates are found, the edit distance is raised by one until there 
+     * are, up to MAX_ESCALATED_EDIT_DISTANCE. The dictionary resumes its 
+     * search from where the lower edit distance stopped. If parallel is set,
+     * current is searched again in the common ForkJoinPool for every edit
+     * distance, counting every increment in stats. Return the options, empty
+     * if none are found.
+     *
+     * @param answer  user input to find candidates for
+     * @param current dictionary to find the candidates in
+     * @param stats   counters of the current query
+     * @return        suggestions for the user
+     */
+    private ArrayList<String> candidateSelection(String answer, 
+                                                 URLDictionary current,
+                                                 QueryStats stats) {
+        if (!parallel) {
+            return current.getNearestOptions(answer, MAX_EDIT_DISTANCE,
+                                                MAX_ESCALATED_EDIT_DISTANCE);
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int maxEdit = MAX_EDIT_DISTANCE;
+        ArrayList<String> options = current.getOptions(answer, maxEdit, pool);
+        while (options.isEmpty() && maxEdit < MAX_ESCALATED_EDIT_DISTANCE) {
+            maxEdit++;
+            stats.escalations++;
+            options = current.getOptions(answer, maxEdit, pool);
+        }
+        return options;
+    }
+
+    /**
+     * Takes a Suggestions suggestions as input. Outputs whether the URL is
+     * correct, and if it isn't every option of suggestions.
+     *
+     * @param suggestions suggestions for the URL the user entered
+     */
+    private void printResult(Suggestions suggestions) {
+        if (suggestions.isCorrect()) {
+            System.out.println("The url is correct.");
+            return;
+        }
+        System.out.println("The url is incorrect");
+        if (suggestions.isNotFound()) {
+            System.out.println("Sorry, we couldn't find the requested URL");
+            return;
+        }
+        ArrayList<String> options = suggestions.getOptions();
+        System.out.println("What do you mean?: ");
+        for (int i = 0; i < options.size(); i++) {
+           System.out.println( " - " + options.get(i));
+        }
+    }
+
+    /**
+     * Instantiates rd, dictionary, calc, edCalc and cache.
+     */
+    private void setup() {
+        rd = new Reader();
+        loadDictionary();
+        probCalc = new ProbabillityCalc();
+        edCalc = new EditDistanceCalc();
+        cache = new SuggestionCache(cacheSize);
+    }
+
+    /**
+     * Load the dictionary again, so changes to the list of URL's are used,
+     * and invalidate the cache, since its Suggestions may be from the old 
+     * dictionary. Changes made with update that aren't in the list are lost.
+     */
+    public synchronized void reload() {
+        loadDictionary();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Takes a String shard as input. Load only the shard named shard again 
+     * from its list, the other shards are left as they are. Invalidate the 
+     * cache. Throw an IllegalArgumentException if the dictionary isn't 
+     * sharded, if there is no shard named shard or if its list can't be 
+     * read, the shard is kept as it was then.
+     *
+     * @param shard name of the shard to load again
+     */
+    public synchronized void reload(String shard) {
+        getSharded().reload(shard, shardPath);
+        cache.invalidateAll();
+    }
+
+    /**
+     * Takes a Collection<String> removed and a Collection<String> added as
+     * input. Replace the dictionary by one without removed and with added, 
+     * in one step, so a query sees either all of the changes or none of 
+     * them. The new Trie shares everything but the changed paths with the 
+     * old one, and queries that are still using the old one keep running 
+     * without waiting. Only a Trie can be updated, so throw an 
+     * IllegalArgumentException if engine isn't trie, replacing another 
+     * engine by a Trie would lose what it was chosen for. A snapshot of the
+     * trie engine is replaced by a Trie built from the list first, which is
+     * logged. The URL's are normalized like those of the list. Invalidate 
+     * the cache, since its Suggestions may be from the old dictionary. The
+     * list of URL's isn't changed.
+     *
+     * @param removed URL's to remove from the dictionary
+     * @param added   URL's to add to the dictionary
+     */
+    public synchronized void update(Collection<String> removed, 
+                                    Collection<String> added) {
+        if (dictionary instanceof ShardedDictionary) {
+            throw new IllegalArgumentException("name the shard to update");
+        }
+        if (!engine.equals("trie")) {
+            throw new IllegalArgumentException("the " + engine + " engine "
+                + "can't be updated, change the list and reload instead");
+        }
+        URLDictionary current = dictionary;
+        if (!(current instanceof Trie)) {
+            System.err.println("Warning: the snapshot is replaced by a Trie "
+                               + "built from the list to update it");
+            current = rd.readInFile(URL_PATH + "governmentURLs.txt");
+        }
+        dictionary = ((Trie) current).update(normalizeAll(removed), 
+                                             normalizeAll(added));
+        cache.invalidateAll();
+    }
+
+    /**
+     * Takes a String shard, a Collection<String> removed and a 
+     * Collection<String> added as input. Update only the shard named shard,
+     * like update does for the whole dictionary, and invalidate the cache. 
+     * Throw an IllegalArgumentException if the dictionary isn't sharded or 
+     * has no such shard.
+     *
+     * @param shard   name of the shard to update
+     * @param removed URL's to remove from the shard
+     * @param added   URL's to add to the shard
+     */
+    public synchronized void update(String shard, Collection<String> removed,
+                                    Collection<String> added) {
+        getSharded().update(shard, normalizeAll(removed), normalizeAll(added));
+        cache.invalidateAll();
+    }
+
+    /**
+     * Takes a Collection<String> urls as input. Return urls normalized with
+     * URLParts.normalize, in the same order.
+     *
+     * @param  urls URL's to normalize
+     * @return      normalized URL's
+     */
+    private static ArrayList<String> normalizeAll(Collection<String> urls) {
+        ArrayList<String> normalized = new ArrayList<String>(urls.size());
+        for (String url : urls) {
+            normalized.add(URLParts.normalize(url));
+        }
+        return normalized;
+    }
+
+    /**
+     * Returns dictionary as a ShardedDictionary. Throw an 
+     * IllegalArgumentException if it isn't one.
+     *
+     * @return the sharded dictionary
+     */
+    private ShardedDictionary getSharded() {
+        URLDictionary current = dictionary;
+        if (!(current instanceof ShardedDictionary)) {
+            throw new IllegalArgumentException("the dictionary isn't sharded");
+        }
+        return (ShardedDictionary) current;
+    }
+
+    /**
+     * Instantiates dictionary. If shardPath is set, every list of URL's in 
+     * it is loaded as a shard of a ShardedDictionary, reusing the one that 
+     * was loaded before. If there is a snapshot of the URL's that is 
+     * newer than the list of URL's, the dictionary is mapped from the 
+     * snapshot instead of being built from the list, keeping the weights of
+     * the URL's. A snapshot of an older version is ignored. The weighted and
+     * parallel search of the trie engine need the Trie itself, so then it is
+     * always built. If engine is symspell a SymSpellIndex is built from the 
+     * list instead, if it is partitioned a PartitionedIndex, if it is qgram
+     * a HybridIndex. If it is bktree a BKTree is read from its file if that
+     * is newer than the list, else it is built from the list. If it is 
+     * offheap an OffHeapTrie is built from the list and its footprint is
+     * printed.
+     */
+    private void loadDictionary() {
+        File urls = new File(URL_PATH + "governmentURLs.txt");
+        File snapshot = new File(URL_PATH + "governmentURLs.trie");
+        URLDictionary newDictionary = null;
+        if (shardPath != null) {
+            ShardedDictionary sharded = dictionary instanceof ShardedDictionary
+                ? (ShardedDictionary) dictionary : new ShardedDictionary(threads);
+            sharded.loadDirectory(shardPath);
+            newDictionary = sharded;
+        } else if (weighted || parallel && engine.equals("trie")) {
+            newDictionary = rd.readInFile(urls.getPath());
+        } else if (engine.equals("offheap")) {
+            OffHeapTrie offHeap = rd.readInOffHeapTrie(urls.getPath());
+            System.err.println(offHeap.getFootprint());
+            newDictionary = offHeap;
+        } else if (engine.equals("bktree")) {
+            File tree = new File(URL_PATH + "governmentURLs.bktree");
+            if (tree.lastModified() >= urls.lastModified()) {
+                newDictionary = rd.readInBKTreeSnapshot(tree.getPath());
+            }
+            if (newDictionary == null) {
+                newDictionary = rd.readInBKTree(urls.getPath());
+            }
+        } else if (engine.equals("symspell")) {
+            newDictionary = new SymSpellIndex(rd.readInURLs(urls.getPath()), 
+                                              deletes);
+        } else if (engine.equals("partitioned")) {
+            newDictionary = new PartitionedIndex(rd.readInURLs(urls.getPath()));
+        } else if (engine.equals("qgram")) {
+            newDictionary = new HybridIndex(rd.readInURLs(urls.getPath()));
+        } else if (snapshot.lastModified() >= urls.lastModified()) {
+            newDictionary = rd.readInSnapshot(snapshot.getPath());
+        }
+        if (newDictionary == null) {
+            newDictionary = rd.readInFile(urls.getPath());
+        }
+        dictionary = newDictionary;
+    }
+}
@@ -0,0 +1,435 @@
+/**
+ * Implemantion of the Wagner-Fischer algorithm.
+ * For implementing this algorithm the paper "On approximate string matching"
+ * was used.  
+ * 
+ * @author Joeri Sleegers
+ */ 
+
+package didyoumean;
+
+import java.util.*;
+
+public class EditDistanceCalc {
+
+    private static final int ASCII_SIZE = 128;
+
+    private static final ThreadLocal<int[][]> ROWS =
+        ThreadLocal.withInitial(() -> new int[3][0]);
+    private static final ThreadLocal<int[]> MATRIX =
+        ThreadLocal.withInitial(() -> new int[0]);
+
+    /**
+     * Takes a String string1 and a String string2 as input. Create an int[][] 
+     * matrix with the size of string2 and string 1. Fill the first row and 
+     * colum of the matrix with ints from 0 to the length of the row's and 
+     * colums respectively. Fill the array by iterating over string2 and
+     * string1. If the charachters are equal, the number from the field diagonally
+     * up to the left is copied to the apropriate field in the matrix. If not, 
+     * the edit with the lowest value is choosen, and one is added to it A 
+     * horizontal step corresponds to a deletion, a vertical step to an 
+     * insertion and a diagonal to a substitution. Count the fields in the
+     * QueryStats of the current thread. Return the matrix.
+     *
+     * @param string1 first string to calculate edit distance from
+     * @param string2 second string to calculate edit distance to
+     * @return        resulting matrix from calculating edit distance
+     */ 
+    public int[][] calcEditDistance(String string1, String string2) {
+        int[][] matrix = new int[string2.length()+1][string1.length()+1];
+        QueryStats.addCells((long) string1.length() * string2.length());
+
+        for (int i = 0; i < string2.length()+1; i++) {
+            matrix[i][0] = i;
+        }
+        for (int i = 0; i < string1.length()+1; i++) {
+            matrix[0][i] = i;
+        }
+
+        int indexI; 
+        int indexJ;
+        for (int j = 0; j < string1.length(); j++) {
+            indexJ = j+1;
+            char first = string1.charAt(j);
+            for (int i = 0; i < string2.length(); i++) {
+                indexI = i+1;
+                char second = string2.charAt(i);
+                if (first == second) {
+                    matrix[indexI][indexJ] = matrix[indexI-1][indexJ-1]; 
+                    continue; 
+                }
+                int deletion    = matrix[indexI-1][indexJ] + 1;
+                int insertion   = matrix[indexI][indexJ-1] + 1;
+                int subtitution = matrix[indexI-1][indexJ-1] + 1;
+                int tempMin     = Math.min(deletion, insertion);
+                int min         = Math.min(tempMin, subtitution);
+                if (j > 0 && i > 0 && string1.charAt(j-1) == second
+                    && first == string2.charAt(i-1)) {
+                    int transposition = matrix[indexI-2][indexJ-2] + 1;
+                    min = Math.min(min, transposition);
+                }       
+                matrix[indexI][indexJ] = min;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Takes a String string1 and a String string2 as input. Returns the
+     * edit-distance between them, the bottom right field of the matrix
+     * wagner-fischer would fload, without creating that matrix.
+     * 
+     * @return edit-distance between string1 and string2
+     */ 
+    public int editDistance(String string1, String string2) {
+        return editDistance(string1, string2, 
+                            Math.max(string1.length(), string2.length()));
+    }
+
+    /**
+     * Takes a String string1, a String string2 and an int maxEdit as input.
+     * Calculates the same edit-distance as calcEditDistance, but only the 
+     * fields within maxEdit of the diagonal, because a path through any 
+     * other field already exceeds maxEdit (Ukkonen). Only three rows are 
+     * kept, which are reused between calls on the same thread. If the 
+     * lengths differ more than maxEdit, or every field of a row exceeds 
+     * maxEdit, stop early. The fields calculated are counted in the 
+     * QueryStats of the current thread. Returns the edit-distance if it 
+     * doesn't exceed maxEdit, otherwise maxEdit+1.
+     *
+     * @param string1 first string to calculate edit distance from
+     * @param string2 second string to calculate edit distance to
+     * @param maxEdit highest edit distance that has to be calculated exactly
+     * @return        edit-distance between string1 and string2, at most 
+     *                maxEdit+1
+     */ 
+    public int editDistance(String string1, String string2, int maxEdit) {
+        int length1 = string1.length();
+        int length2 = string2.length();
+        int outside = maxEdit + 1;
+        if (Math.abs(length1 - length2) > maxEdit) {
+            return outside;
+        }
+
+        int[][] rows = ROWS.get();
+        if (rows[0].length < length1 + 1) {
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new int[length1 + 1];
+            }
+        }
+        int[] previousRow = rows[0];
+        int[] row = rows[1];
+        int[] nextRow = rows[2];
+        for (int j = 0; j <= length1; j++) {
+            row[j] = Math.min(j, outside);
+        }
+
+        long cells = 0;
+        for (int i = 1; i <= length2; i++) {
+            char letter = string2.charAt(i-1);
+            int from = Math.max(1, i - maxEdit);
+            int to = Math.min(length1, i + maxEdit);
+            nextRow[0] = Math.min(i, outside);
+            nextRow[from-1] = from == 1 ? nextRow[0] : outside;
+            int min = nextRow[from-1];
+            cells += to - from + 1;
+
+            for (int j = from; j <= to; j++) {
+                char current = string1.charAt(j-1);
+                int value;
+                if (current == letter) {
+                    value = row[j-1];
+                } else {
+                    value = Math.min(Math.min(row[j], nextRow[j-1]), row[j-1]) + 1;
+                    if (i > 1 && j > 1 && string1.charAt(j-2) == letter
+                        && current == string2.charAt(i-2)) {
+                        value = Math.min(value, previousRow[j-2] + 1);
+                    }
+                    value = Math.min(value, outside);
+                }
+                nextRow[j] = value;
+                min = Math.min(min, value);
+            }
+            if (to < length1) {
+                nextRow[to+1] = outside;
+            }
+            if (min > maxEdit) {
+                QueryStats.addCells(cells);
+                return outside;
+            }
+
+            int[] oldRow = previousRow;
+            previousRow = row;
+            row = nextRow;
+            nextRow = oldRow;
+        }
+        QueryStats.addCells(cells);
+        return row[length1];
+    }
+
+    /**
+     * Takes a String string1 and a String string2 as input. Calculates the
+     * unrestricted Damerau-Levenshtein distance between them (Lowrance and
+     * Wagner): unlike editDistance, a transposed pair may be edited again
+     * afterwards, so "ca" is two edits from "abc" instead of three. That
+     * makes it a metric, the triangle inequality holds, which editDistance
+     * doesn't guarantee. It is never more than editDistance. For every
+     * charachter of string1 the last row it was in is kept, so the last
+     * transposition with it can be found. Those rows are kept in a small 
+     * hash table of only the charachters of string1, with a slot for every
+     * charachter of both strings looked up before the matrix is filled, and
+     * a slot that stays zero for charachters of string2 that aren't in 
+     * string1. The table and its slots are kept after the matrix, which is 
+     * reused between calls on the same thread and only grows as long as the
+     * strings are. The fields calculated are counted in the QueryStats of 
+     * the current thread.
+     *
+     * @param string1 first string to calculate the distance from
+     * @param string2 second string to calculate the distance to
+     * @return        Damerau-Levenshtein distance between string1 and string2
+     */
+    public int damerauDistance(String string1, String string2) {
+        int length1 = string1.length();
+        int length2 = string2.length();
+        int width = length2 + 2;
+        int bits = 32 
+            - Integer.numberOfLeadingZeros(Math.max(length1, 1) * 2 - 1);
+        int capacity = 1 << bits;
+        int keys = (length1 + 2) * width;
+        int lastRows = keys + capacity;
+        int slots1 = lastRows + capacity + 1;
+        int slots2 = slots1 + length1;
+        int[] matrix = MATRIX.get();
+        if (matrix.length < slots2 + length2) {
+            matrix = new int[slots2 + length2];
+            MATRIX.set(matrix);
+        }
+        Arrays.fill(matrix, keys, slots1, 0);
+        for (int i = 0; i < length1; i++) {
+            int slot = findSlot(matrix, keys, bits, string1.charAt(i));
+            matrix[keys + slot] = string1.charAt(i) + 1;
+            matrix[slots1 + i] = lastRows + slot;
+        }
+        for (int j = 0; j < length2; j++) {
+            int slot = findSlot(matrix, keys, bits, string2.charAt(j));
+            matrix[slots2 + j] = lastRows 
+                + (matrix[keys + slot] == 0 ? capacity : slot);
+        }
+        int infinity = length1 + length2;
+        matrix[0] = infinity;
+        for (int i = 0; i <= length1; i++) {
+            matrix[(i+1) * width] = infinity;
+            matrix[(i+1) * width + 1] = i;
+        }
+        for (int j = 0; j <= length2; j++) {
+            matrix[j+1] = infinity;
+            matrix[width + j + 1] = j;
+        }
+
+        for (int i = 1; i <= length1; i++) {
+            char letter = string1.charAt(i-1);
+            int lastColumn = 0;
+            for (int j = 1; j <= length2; j++) {
+                char current = string2.charAt(j-1);
+                int lastRow = matrix[matrix[slots2 + j - 1]];
+                int column = lastColumn;
+                int cost = 1;
+                if (letter == current) {
+                    cost = 0;
+                    lastColumn = j;
+                }
+                int value = Math.min(matrix[i * width + j] + cost,
+                    Math.min(matrix[(i+1) * width + j], 
+                             matrix[i * width + j + 1]) + 1);
+                int transposition = matrix[lastRow * width + column]
+                    + (i - lastRow - 1) + 1 + (j - column - 1);
+                matrix[(i+1) * width + j + 1] = Math.min(value, transposition);
+            }
+            matrix[matrix[slots1 + i - 1]] = i;
+        }
+        QueryStats.addCells((long) length1 * length2);
+        return matrix[(length1+1) * width + length2 + 1];
+    }
+
+    /**
+     * Takes an int[] table, the int offset and the int bits of a hash table
+     * of 2 to the power bits charachters in it, and a char letter as input.
+     * Probe the table from the hash of letter until the slot of letter or 
+     * an empty slot is found, a charachter is stored plus one so zero means
+     * empty. Return the slot.
+     *
+     * @param  table  array holding the hash table
+     * @param  offset index of the first slot of the hash table in table
+     * @param  bits   number of bits of the size of the hash table
+     * @param  letter charachter to find the slot of
+     * @return        slot of letter, or the empty slot it belongs in
+     */
+    private static int findSlot(int[] table, int offset, int bits, 
+                                char letter) {
+        int mask = (1 << bits) - 1;
+        int slot = (letter * 0x9E3779B9) >>> (32 - bits);
+        while (table[offset + slot] != 0 
+               && table[offset + slot] != letter + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Takes a String pattern as input. For every ASCII charachter create a 
+     * bit mask with bit i set if the charachter is at index i of pattern. 
+     * These masks only have to be calculated once for a pattern and can then
+     * be used by the bit-parallel editDistance for every string the pattern 
+     * is compared to. Return the masks, or null if pattern doesn't fit in 
+     * 64 bits.
+     *
+     * @param  pattern string to calculate the masks for
+     * @return         masks of pattern indexed by charachter, null if pattern
+     *                 is longer than 64 charachters
+     */ 
+    public long[] calcPatternMasks(String pattern) {
+        if (pattern.length() > Long.SIZE) {
+            return null;
+        }
+        long[] masks = new long[ASCII_SIZE];
+        for (int i = 0; i < pattern.length(); i++) {
+            char letter = pattern.charAt(i);
+            if (letter < ASCII_SIZE) {
+                masks[letter] |= 1L << i;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Takes a String pattern, a long[] masks of pattern, a String text and an
+     * int maxEdit as input. Calculates the same edit-distance as 
+     * calcEditDistance with the bit-vector algorithm of Hyyro ("A bit-vector 
+     * algorithm for computing Levenshtein and Damerau edit distances"). A 
+     * whole column of the matrix is kept as two bit vectors of vertical 
+     * differences, so every charachter of text costs a handful of word 
+     * operations. Transpositions are found with the mask of the previous
+     * charachter of text. If masks is null, pattern was too long, so fall 
+     * back to the banded editDistance. Stop early if the score can't get 
+     * back under maxEdit anymore. Every charachter of text counts as a 
+     * column of fields in the QueryStats of the current thread. Returns the
+     * edit-distance if it doesn't exceed maxEdit, otherwise maxEdit+1.
+     *
+     * @param pattern string the masks were calculated for
+     * @param masks   masks of pattern from calcPatternMasks
+     * @param text    string to calculate the edit distance to
+     * @param maxEdit highest edit distance that has to be calculated exactly
+     * @return        edit-distance between pattern and text, at most 
+     *                maxEdit+1
+     */ 
+    public int editDistance(String pattern, long[] masks, String text, 
+                            int maxEdit) {
+        int outside = maxEdit + 1;
+        if (masks == null) {
+            return editDistance(pattern, text, maxEdit);
+        }
+        if (Math.abs(pattern.length() - text.length()) > maxEdit) {
+            return outside;
+        }
+        if (pattern.length() == 0) {
+            return text.length();
+        }
+
+        long last = 1L << (pattern.length() - 1);
+        long positive = -1L;
+        long negative = 0L;
+        long diagonal = 0L;
+        long previousMask = 0L;
+        int score = pattern.length();
+
+        for (int j = 0; j < text.length(); j++) {
+            long mask = getMask(pattern, masks, text.charAt(j));
+            long transposition = (((~diagonal) & mask) << 1) & previousMask;
+            diagonal = (((mask & positive) + positive) ^ positive) | mask 
+                       | negative | transposition;
+            long horizontalPositive = negative | ~(diagonal | positive);
+            long horizontalNegative = diagonal & positive;
+            if ((horizontalPositive & last) != 0) {
+                score++;
+            } else if ((horizontalNegative & last) != 0) {
+                score--;
+            }
+            if (score - (text.length() - j - 1) > maxEdit) {
+                QueryStats.addCells((long) (j + 1) * pattern.length());
+                return outside;
+            }
+            long shifted = (horizontalPositive << 1) | 1L;
+            negative = shifted & diagonal;
+            positive = (horizontalNegative << 1) | ~(shifted | diagonal);
+            previousMask = mask;
+        }
+        QueryStats.addCells((long) text.length() * pattern.length());
+        return Math.min(score, outside);
+    }
+
+    /**
+     * Takes a String pattern, a long[] masks of pattern and a char letter as
+     * input. Return the mask of letter, calculate it from pattern if letter 
+     * isn't an ASCII charachter.
+     *
+     * @param  pattern string the masks were calculated for
+     * @param  masks   masks of pattern from calcPatternMasks
+     * @param  letter  charachter to get the mask of
+     * @return         bit mask of the positions of letter in pattern
+     */ 
+    private long getMask(String pattern, long[] masks, char letter) {
+        if (letter < ASCII_SIZE) {
+            return masks[letter];
+        }
+        long mask = 0L;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) == letter) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Takes a String input, a char letter, a char previousLetter, an int[]
+     * previousRow, an int[] row and an int[] nextRow as input. Row holds the
+     * edit distances between a sequence and every prefix of input,
+     * previousRow the same for that sequence without its last letter. Fill
+     * nextRow for the sequence extended with letter, the same way a single
+     * row of calcEditDistance is filled. PreviousRow may be null if the
+     * sequence is empty, then no transposition is checked. Return the lowest
+     * value in nextRow.
+     *
+     * @param input          string the rows are calculated against
+     * @param letter         letter the sequence is extended with
+     * @param previousLetter last letter of the sequence before extending it
+     * @param previousRow    row of the sequence without its last letter
+     * @param row            row of the sequence
+     * @param nextRow        row to fill for the extended sequence
+     * @return               lowest edit distance in nextRow
+     */
+    public static int calcNextRow(String input, char letter, char previousLetter,
+                                  int[] previousRow, int[] row, int[] nextRow) {
+        nextRow[0] = row[0] + 1;
+        int min = nextRow[0];
+
+        for (int j = 1; j < nextRow.length; j++) {
+            char current = input.charAt(j-1);
+            if (current == letter) {
+                nextRow[j] = row[j-1];
+            } else {
+                int deletion    = row[j] + 1;
+                int insertion   = nextRow[j-1] + 1;
+                int subtitution = row[j-1] + 1;
+                int value       = Math.min(Math.min(deletion, insertion), subtitution);
+                if (previousRow != null && j > 1 && input.charAt(j-2) == letter
+                    && current == previousLetter) {
+                    value = Math.min(value, previousRow[j-2] + 1);
+                }
+                nextRow[j] = value;
+            }
+            min = Math.min(min, nextRow[j]);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * The search of getNearestOptions for every kind of trie, reading the nodes
+ * through a TrieAccess. Every node is visited at most once. The search 
+ * starts with minEdit as threshold. A node whose row has a lowest value 
+ * above the threshold isn't thrown away but kept in frontier, under that
+ * lowest value, and a word whose edit distance is above the threshold is
+ * kept in deferred, under its edit distance. Nodes and words above maxEdit
+ * can never be needed and are dropped. If nothing is found, the threshold is
+ * raised by one, and only the words and nodes kept under the new threshold 
+ * are used: the words are options now and the search resumes from the 
+ * nodes.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class FrontierSearch<N> {
+
+    TrieAccess<N> access;
+    String userInput;
+    ArrayList<ArrayList<FrontierNode<N>>> frontier;
+    ArrayList<ArrayList<String>> deferred;
+    ArrayList<String> result;
+    int visited;
+
+    /**
+     * Constructor of FrontierSearch. Takes a TrieAccess<N> access, a String
+     * userInput and an int maxEdit as input. Create an empty frontier and 
+     * deferred for every edit distance up to maxEdit.
+     *
+     * @param access    access to the nodes of the trie
+     * @param userInput input to find the options for
+     * @param maxEdit   highest edit distance to try
+     */
+    private FrontierSearch(TrieAccess<N> access, String userInput, 
+                           int maxEdit) {
+        this.access = access;
+        this.userInput = userInput;
+        frontier = new ArrayList<ArrayList<FrontierNode<N>>>(maxEdit+1);
+        deferred = new ArrayList<ArrayList<String>>(maxEdit+1);
+        for (int i = 0; i <= maxEdit; i++) {
+            frontier.add(new ArrayList<FrontierNode<N>>());
+            deferred.add(new ArrayList<String>());
+        }
+        result = new ArrayList<String>();
+    }
+
+    /**
+     * Takes a TrieAccess<N> access, the N topNode of a trie, a String 
+     * userInput, an int minEdit and an int maxEdit as input. Find the 
+     * nearest options of userInput in the trie from minEdit up to maxEdit,
+     * counting the nodes visited, the fields of their rows and the raises of
+     * the threshold in the QueryStats of the current thread. Return the 
+     * options, empty if there is no word within maxEdit.
+     *
+     * @param  access    access to the nodes of the trie
+     * @param  topNode   top node of the trie
+     * @param  userInput input to find the options for
+     * @param  minEdit   edit distance to start with
+     * @param  maxEdit   highest edit distance to try
+     * @return           the nearest words in the trie, empty if none is 
+     *                   within maxEdit
+     */
+    public static <N> ArrayList<String> getNearestOptions(
+            TrieAccess<N> access, N topNode, String userInput, int minEdit,
+            int maxEdit) {
+        if (maxEdit < 0) {
+            return new ArrayList<String>();
+        }
+        FrontierSearch<N> search = 
+            new FrontierSearch<N>(access, userInput, maxEdit);
+        int[] firstRow = new int[userInput.length()+1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        search.frontier.get(0).add(
+            new FrontierNode<N>(topNode, ' ', "", null, firstRow));
+        search.search(minEdit, maxEdit);
+        QueryStats stats = QueryStats.current();
+        stats.nodes += search.visited;
+        stats.cells += (long) search.visited * userInput.length();
+        return search.result;
+    }
+
+    /**
+     * Takes an int minEdit and an int maxEdit as input. Raise the threshold
+     * from minEdit until result has options or maxEdit is passed, using the
+     * words deferred and resuming from the nodes kept in frontier under 
+     * every edit distance on the way.
+     *
+     * @param minEdit edit distance to start with
+     * @param maxEdit highest edit distance to try
+     */
+    private void search(int minEdit, int maxEdit) {
+        for (int edit = 0; edit <= maxEdit; edit++) {
+            if (edit > minEdit && result.isEmpty()) {
+                QueryStats.current().escalations++;
+            }
+            result.addAll(deferred.get(edit));
+            ArrayList<FrontierNode<N>> starts = frontier.get(edit);
+            for (int i = 0; i < starts.size(); i++) {
+                FrontierNode<N> start = starts.get(i);
+                int threshold = Math.max(edit, minEdit);
+                addWord(start.node, start.sequence, start.row, threshold);
+                resumeChildren(start.node, start.letter, threshold, 
+                               start.previousRow, start.row,
+                               new StringBuilder(start.sequence));
+            }
+            if (edit >= minEdit && !result.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes an N node, a char letter, an int threshold, an int[] 
+     * previousRow, an int[] row and a StringBuilder sequence as input. Row
+     * is the row of node, letter its letter and sequence the letters from 
+     * the top node to it. Calculate the row of every child. A child whose 
+     * lowest value exceeds threshold goes to frontier, otherwise it is added
+     * with addWord and its children are searched.
+     *
+     * @param node        node whose children are searched
+     * @param letter      letter of node
+     * @param threshold   maximum edit distance of this round
+     * @param previousRow row of the parent of node, null at the top
+     * @param row         row of node
+     * @param sequence    letters from the top node to node
+     */
+    private void resumeChildren(N node, char letter, int threshold,
+                                int[] previousRow, int[] row,
+                                StringBuilder sequence) {
+        int childCount = access.getChildCount(node);
+        for (int i = 0; i < childCount; i++) {
+            char childLetter = access.getLetter(node, i);
+            N child = access.getChildAt(node, i);
+            int[] nextRow = new int[row.length];
+            int min = EditDistanceCalc.calcNextRow(userInput, childLetter, 
+                letter, previousRow, row, nextRow);
+            visited++;
+            sequence.append(childLetter);
+            if (min > threshold) {
+                if (min < frontier.size()) {
+                    frontier.get(min).add(new FrontierNode<N>(child, 
+                        childLetter, sequence.toString(), row, nextRow));
+                }
+            } else {
+                addWord(child, sequence, nextRow, threshold);
+                resumeChildren(child, childLetter, threshold, row, nextRow,
+                               sequence);
+            }
+            sequence.setLength(sequence.length()-1);
+        }
+    }
+
+    /**
+     * Takes an N node, a CharSequence sequence, an int[] row and an int 
+     * threshold as input. If node is a word, add sequence to result if it 
+     * is within threshold, or to deferred under its edit distance if that 
+     * fits.
+     *
+     * @param node      node to add
+     * @param sequence  letters from the top node to node
+     * @param row       row of node
+     * @param threshold maximum edit distance of this round
+     */
+    private void addWord(N node, CharSequence sequence, int[] row,
+                         int threshold) {
+        if (!access.isWord(node)) {
+            return;
+        }
+        int distance = row[row.length-1];
+        if (distance <= threshold) {
+            result.add(sequence.toString());
+        } else if (distance < deferred.size()) {
+            deferred.get(distance).add(sequence.toString());
+        }
+    }
+
+    /**
+     * A node the search pruned, with everything needed to resume the search
+     * from it: its letter, the letters from the top node to it, its own row
+     * and the row of its parent.
+     */
+    private static class FrontierNode<N> {
+
+        N node;
+        char letter;
+        String sequence;
+        int[] previousRow;
+        int[] row;
+
+        FrontierNode(N node, char letter, String sequence, int[] previousRow,
+                     int[] row) {
+            this.node = node;
+            this.letter = letter;
+            this.sequence = sequence;
+            this.previousRow = previousRow;
+            this.row = row;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Histogram of non-negative long values in the style of HdrHistogram. The 
+ * values below 32 each have their own bucket, every power of two above it 
+ * is split into 16 buckets, so a value is recorded with an error of at most
+ * 1/16 of it, whatever its size. Recording is a single atomic increment of
+ * a fixed array, so it can be left on while serving and read at any time.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.concurrent.atomic.*;
+
+public class Histogram {
+
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int BUCKETS = LINEAR_BUCKETS + 
+        (Long.SIZE - SUB_BUCKET_BITS - 2) * SUB_BUCKETS;
+
+    AtomicLongArray counts;
+    AtomicLong total;
+    AtomicLong sum;
+    AtomicLong max;
+
+    public Histogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        total = new AtomicLong();
+        sum = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Takes a long value as input. Add one to the bucket of value. Negative
+     * values are recorded as zero.
+     *
+     * @param value value to record
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        counts.incrementAndGet(bucketOf(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        long oldMax = max.get();
+        while (value > oldMax && !max.compareAndSet(oldMax, value)) {
+            oldMax = max.get();
+        }
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = total.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+     * Takes a double percentile as input. Go through the buckets from the 
+     * lowest up until percentile percent of the values is counted. Return 
+     * the highest value of that bucket, or 0 if nothing was recorded.
+     *
+     * @param  percentile percentage of the values that is at most the result
+     * @return            highest value of the bucket the percentile falls in
+     */
+    public long getPercentile(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long needed = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= needed) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Takes a long value as input. Values below LINEAR_BUCKETS are their own
+     * bucket. Otherwise shift value until its highest SUB_BUCKET_BITS+1 bits
+     * are left, those pick one of the SUB_BUCKETS of its power of two. 
+     * Return the index of the bucket.
+     *
+     * @param  value value to find the bucket of
+     * @return       index of the bucket of value
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) 
+                    - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Takes an int bucket as input. Return the highest value that is counted
+     * in bucket.
+     *
+     * @param  bucket index of a bucket
+     * @return        highest value of bucket
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * A dictionary of URL's that keeps both a Trie and a QGramIndex of them and
+ * picks one for every query. The Trie is fastest at small edit distances,
+ * where it prunes most of its nodes, but the nodes it has to visit grow
+ * quickly with the edit distance. The QGramIndex only verifies the URL's
+ * that share enough q-grams with the query, which works best for long
+ * queries at higher edit distances. When the count filter lets too many
+ * URL's through, the Trie is used again.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class HybridIndex implements URLDictionary {
+
+    private static final int MIN_EDIT = 2;
+    private static final int MIN_THRESHOLD = 2 * QGramIndex.Q;
+
+    Trie trie;
+    QGramIndex qgrams;
+
+    /**
+     * Constructor of HybridIndex. Takes an ArrayList<String> urls as input.
+     * Build a Trie and a QGramIndex of urls.
+     *
+     * @param urls URL's to put in the index
+     */
+    public HybridIndex(ArrayList<String> urls) {
+        String[] sorted = urls.toArray(new String[0]);
+        Arrays.sort(sorted);
+        trie = Trie.fromSorted(sorted);
+        qgrams = new QGramIndex(urls);
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Return true if
+     * the QGramIndex should search for userInput at maxEdit: from MIN_EDIT
+     * on, as long as a URL has to share at least MIN_THRESHOLD q-grams with
+     * userInput.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           true if the QGramIndex should be searched
+     */
+    public static boolean usesQGrams(String userInput, int maxEdit) {
+        return maxEdit >= MIN_EDIT && QGramIndex.countThreshold(
+            userInput.length(), maxEdit) >= MIN_THRESHOLD;
+    }
+
+    /**
+     * Takes a String word as input. Return true if the Trie contains word.
+     *
+     * @param  word word to be checked if the index contains it
+     * @return      true if the index contains word, false if it doesn't
+     */
+    public boolean contains(String word) {
+        return trie.contains(word);
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Return the
+     * options of the QGramIndex if usesQGrams, else those of the Trie.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all words in the index within maxEdit of userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        if (usesQGrams(userInput, maxEdit)) {
+            return qgrams.getOptions(userInput, maxEdit);
+        }
+        return trie.getOptions(userInput, maxEdit);
+    }
+
+    /**
+     * Takes a String userInput, an int minEdit and an int maxEdit as input.
+     * Split the edit distances from minEdit up to maxEdit into runs that
+     * use the same index, and let that index search the run, so it can
+     * resume its own search within it. Count every raise in the QueryStats
+     * of the current thread, the ones between runs here. Return the options
+     * of the first run that has any, empty if none is within maxEdit.
+     *
+     * @param  userInput input to find the options for
+     * @param  minEdit   edit distance to start with
+     * @param  maxEdit   highest edit distance to try
+     * @return           the nearest words in the index, empty if none is
+     *                   within maxEdit
+     */
+    public ArrayList<String> getNearestOptions(String userInput, int minEdit,
+                                               int maxEdit) {
+        ArrayList<String> options = new ArrayList<String>();
+        for (int from = minEdit; options.isEmpty() && from <= maxEdit; ) {
+            if (from > minEdit) {
+                QueryStats.current().escalations++;
+            }
+            boolean grams = usesQGrams(userInput, from);
+            int to = from;
+            while (to < maxEdit && usesQGrams(userInput, to+1) == grams) {
+                to++;
+            }
+            URLDictionary index = grams ? qgrams : trie;
+            options = index.getNearestOptions(userInput, from, to);
+            from = to + 1;
+        }
+        return options;
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * A Trie read directly from a snapshot written by TrieSnapshot. The snapshot
+ * is mapped into memory, so nothing is deserialized when it is loaded and 
+ * nodes are only paged in when a search reaches them. Nodes are identified
+ * by their offset in the snapshot.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+
+public class MappedTrie implements URLDictionary {
+
+    ByteBuffer buffer;
+    int topOffset;
+    int nodeCount;
+    double maxWeight;
+
+    /**
+     * Constructor of MappedTrie. Takes a ByteBuffer buffer containing a
+     * snapshot as input. Check the header of the snapshot and read the number
+     * of nodes, the offset of the top node and the highest weight from it.
+     *
+     * @param buffer buffer containing the snapshot
+     */
+    public MappedTrie(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != TrieSnapshot.MAGIC
+            || buffer.getInt(4) != TrieSnapshot.VERSION) {
+            throw new IOException("Not a dictionary snapshot");
+        }
+        this.buffer = buffer;
+        nodeCount = buffer.getInt(8);
+        topOffset = buffer.getInt(12);
+        maxWeight = buffer.getDouble(16);
+    }
+
+    /**
+     * Takes a String word as input. Starting at the top node, look up the 
+     * child of the current node with the current letter of word. If there is 
+     * none return false. Return true if the node of the last letter is a word.
+     *
+     * @param  word word to be checked if the MappedTrie contains it
+     * @return      true if MappedTrie contains word, false if it doesn't
+     */
+    public boolean contains(String word) {
+        int node = topOffset;
+        for (int i = 0; i < word.length(); i++) {
+            node = getChild(node, word.charAt(i));
+            if (node < 0) {
+                return false;
+            }
+        }
+        return isWord(node);
+    }
+
+    /**
+     * Takes a String word as input. Walk down to the node of word like
+     * contains. Return the weight stored with it, or 0 if the MappedTrie 
+     * doesn't contain word.
+     *
+     * @param  word word to get the weight of
+     * @return      weight of word, 0 if the MappedTrie doesn't contain it
+     */
+    public double getWeight(String word) {
+        int node = topOffset;
+        for (int i = 0; i < word.length() && node >= 0; i++) {
+            node = getChild(node, word.charAt(i));
+        }
+        if (node < 0 || !isWord(node)) {
+            return 0;
+        }
+        int childCount = getChildCount(node);
+        return buffer.getDouble(node + 4 + (childCount + childCount % 2) * 2
+                                + childCount * 4);
+    }
+
+    /**
+     * Returns the highest weight of any word in the MappedTrie.
+     *
+     * @return highest weight in the MappedTrie
+     */
+    public double getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Create the first
+     * row of the edit distance matrix and search every child of the top node
+     * with it, the same way Trie does, and count the visited nodes in the 
+     * QueryStats of the current thread. Return result.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all words in the MappedTrie within maxEdit of userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        ArrayList<String> result = new ArrayList<String>();
+        StringBuilder sequence = new StringBuilder();
+        int[] firstRow = new int[userInput.length()+1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+
+        int visited = 0;
+        for (int i = 0; i < getChildCount(topOffset); i++) {
+            visited += searchNode(topOffset, i, ' ', userInput, maxEdit, null,
+                                  firstRow, sequence, result);
+        }
+        QueryStats stats = QueryStats.current();
+        stats.nodes += visited;
+        stats.cells += (long) visited * userInput.length();
+        return result;
+    }
+
+    /**
+     * Takes a String userInput, an int minEdit and an int maxEdit as input.
+     * Finds the nearest options with FrontierSearch, the same way 
+     * getNearestOptions of Trie does, reading the nodes from the snapshot.
+     * Return the options, empty if there is no word within maxEdit.
+     *
+     * @param  userInput input to find the options for
+     * @param  minEdit   edit distance to start with
+     * @param  maxEdit   highest edit distance to try
+     * @return           the nearest words in the MappedTrie, empty if none is
+     *                   within maxEdit
+     */
+    public ArrayList<String> getNearestOptions(String userInput, int minEdit,
+                                               int maxEdit) {
+        return FrontierSearch.getNearestOptions(new NodeAccess(), topOffset,
+                                                userInput, minEdit, maxEdit);
+    }
+
+    /**
+     * Takes an int parent, an int index, a char previousLetter, a String
+     * userInput, an int maxEdit, an int[] previousRow, an int[] row, a
+     * StringBuilder sequence and an ArrayList<String> result as input. 
+     * Calculate the row of the child at index of parent. Stop if its lowest
+     * value exceeds maxEdit. Add the sequence of the child to result if it is
+     * a word within maxEdit of userInput. Search all children of the child.
+     * Return the number of nodes visited, the child included.
+     *
+     * @param parent         offset of the parent of the node to search
+     * @param index          index of the node to search in its parent
+     * @param previousLetter letter of parent
+     * @param userInput      input to find the options for
+     * @param maxEdit        maximum edit distance between userInput and an option
+     * @param previousRow    row of the grandparent of the node, null at the top
+     * @param row            row of parent
+     * @param sequence       letters from the top node to parent
+     * @param result         options found so far
+     * @return               number of nodes visited
+     */
+    private int searchNode(int parent, int index, char previousLetter,
+                            String userInput, int maxEdit, int[] previousRow,
+                            int[] row, StringBuilder sequence,
+                            ArrayList<String> result) {
+        char letter = getLetter(parent, index);
+        int[] nextRow = new int[row.length];
+        int min = EditDistanceCalc.calcNextRow(userInput, letter, previousLetter,
+                                               previousRow, row, nextRow);
+        if (min > maxEdit) {
+            return 1;
+        }
+        int node = getChildAt(parent, index);
+        sequence.append(letter);
+        if (isWord(node) && nextRow[nextRow.length-1] <= maxEdit) {
+            result.add(sequence.toString());
+        }
+
+        int visited = 1;
+        for (int i = 0; i < getChildCount(node); i++) {
+            visited += searchNode(node, i, letter, userInput, maxEdit, row,
+                                  nextRow, sequence, result);
+        }
+        sequence.setLength(sequence.length()-1);
+        return visited;
+    }
+
+    /**
+     * Takes an int node and a char letter as input. Binary search the letters
+     * of the children of node for letter. Return the offset of the child 
+     * with that letter, or -1 if there is none.
+     *
+     * @param  node   offset of the node
+     * @param  letter letter of the child to find
+     * @return        offset of the child, -1 if there is none
+     */
+    private int getChild(int node, char letter) {
+        int low = 0;
+        int high = getChildCount(node) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleLetter = getLetter(node, middle);
+            if (middleLetter < letter) {
+                low = middle + 1;
+            } else if (middleLetter > letter) {
+                high = middle - 1;
+            } else {
+                return getChildAt(node, middle);
+            }
+        }
+        return -1;
+    }
+
+    private int getChildCount(int node) {
+        return buffer.getInt(node) >>> 1;
+    }
+
+    private boolean isWord(int node) {
+        return (buffer.getInt(node) & 1) == 1;
+    }
+
+    private char getLetter(int node, int index) {
+        return buffer.getChar(node + 4 + index * 2);
+    }
+
+    private int getChildAt(int node, int index) {
+        int childCount = getChildCount(node);
+        return buffer.getInt(node + 4 + (childCount + childCount % 2) * 2
+                             + index * 4);
+    }
+
+    /**
+     * Access to the nodes of the snapshot for FrontierSearch, a node is its
+     * offset.
+     */
+    private class NodeAccess implements TrieAccess<Integer> {
+
+        public int getChildCount(Integer node) {
+            return MappedTrie.this.getChildCount(node);
+        }
+
+        public char getLetter(Integer node, int index) {
+            return MappedTrie.this.getLetter(node, index);
+        }
+
+        public Integer getChildAt(Integer node, int index) {
+            return MappedTrie.this.getChildAt(node, index);
+        }
+
+        public boolean isWord(Integer node) {
+            return MappedTrie.this.isWord(node);
+        }
+    }
+}
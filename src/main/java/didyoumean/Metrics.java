@@ -0,0 +1,192 @@
+/**
+ * Process wide metrics of the queries. Holds a Histogram of the latency of
+ * every stage of a query, lookup in the dictionary, candidate generation, 
+ * scoring and sorting, and of the total, and a Histogram of every counter 
+ * of QueryStats. The queries record their own QueryStats without locking and
+ * add them here once they are done, which costs a few atomic increments per
+ * query, so the metrics can always stay on. They are registered as an MBean
+ * under didyoumean:type=Metrics and can be dumped as text.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.lang.management.*;
+import java.util.concurrent.atomic.*;
+import javax.management.*;
+
+public class Metrics implements MetricsMBean {
+
+    public static final int LOOKUP = 0;
+    public static final int CANDIDATES = 1;
+    public static final int SCORING = 2;
+    public static final int SORTING = 3;
+    public static final int TOTAL = 4;
+    public static final String[] STAGE_NAMES = 
+        {"lookup", "candidates", "scoring", "sorting", "total"};
+
+    private static final String OBJECT_NAME = "didyoumean:type=Metrics";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = 
+        {"p50", "p90", "p99", "p999"};
+    private static final Metrics METRICS = register(new Metrics());
+
+    Histogram[] latencies;
+    Histogram nodes;
+    Histogram cells;
+    Histogram candidates;
+    Histogram scored;
+    Histogram escalations;
+    LongAdder cacheHits;
+
+    public Metrics() {
+        latencies = new Histogram[STAGE_NAMES.length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram();
+        }
+        nodes = new Histogram();
+        cells = new Histogram();
+        candidates = new Histogram();
+        scored = new Histogram();
+        escalations = new Histogram();
+        cacheHits = new LongAdder();
+    }
+
+    /**
+     * Returns the Metrics of the process.
+     *
+     * @return the Metrics every query is recorded in
+     */
+    public static Metrics get() {
+        return METRICS;
+    }
+
+    /**
+     * Takes a Metrics metrics as input. Register metrics with the platform
+     * MBeanServer, if that fails the metrics can still be dumped as text.
+     * Return metrics.
+     *
+     * @param  metrics metrics to register
+     * @return         metrics
+     */
+    private static Metrics register(Metrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Error: " + e);
+        }
+        return metrics;
+    }
+
+    /**
+     * Takes a QueryStats stats as input. Record the time of every stage and
+     * the total of stats in microseconds. A query answered from the cache 
+     * only counts as a cache hit, the other counters are recorded for the 
+     * queries that did the work.
+     *
+     * @param stats counters of a finished query
+     */
+    public void record(QueryStats stats) {
+        latencies[TOTAL].record(stats.nanos[TOTAL] / 1000);
+        if (stats.cached) {
+            cacheHits.increment();
+            return;
+        }
+        for (int i = 0; i < TOTAL; i++) {
+            latencies[i].record(stats.nanos[i] / 1000);
+        }
+        nodes.record(stats.nodes);
+        cells.record(stats.cells);
+        candidates.record(stats.candidates);
+        scored.record(stats.scored);
+        escalations.record(stats.escalations);
+    }
+
+    public long getQueries() {
+        return latencies[TOTAL].getCount();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public double getMeanNodes() {
+        return nodes.getMean();
+    }
+
+    public double getMeanCells() {
+        return cells.getMean();
+    }
+
+    public double getMeanCandidates() {
+        return candidates.getMean();
+    }
+
+    public double getMeanEscalations() {
+        return escalations.getMean();
+    }
+
+    /**
+     * Takes a String stage and a double percentile as input. Return the 
+     * percentile of the latency of stage in microseconds, or -1 if there is
+     * no stage with that name.
+     *
+     * @param  stage      name of the stage
+     * @param  percentile percentage of the queries that were at least as fast
+     * @return            latency of stage in microseconds
+     */
+    public long getLatencyMicros(String stage, double percentile) {
+        for (int i = 0; i < STAGE_NAMES.length; i++) {
+            if (STAGE_NAMES[i].equals(stage)) {
+                return latencies[i].getPercentile(percentile);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns every histogram on its own line with its count, mean, 
+     * percentiles and maximum. Latencies are in microseconds.
+     *
+     * @return the metrics as text
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("queries ").append(getQueries())
+               .append(" cacheHits ").append(getCacheHits()).append('\n');
+        for (int i = 0; i < STAGE_NAMES.length; i++) {
+            append(builder, STAGE_NAMES[i] + "Micros", latencies[i]);
+        }
+        append(builder, "nodes", nodes);
+        append(builder, "cells", cells);
+        append(builder, "candidates", candidates);
+        append(builder, "scored", scored);
+        append(builder, "escalations", escalations);
+        return builder.toString();
+    }
+
+    /**
+     * Takes a StringBuilder builder, a String name and a Histogram histogram
+     * as input. Append a line with name and the statistics of histogram to
+     * builder.
+     *
+     * @param builder   text to append to
+     * @param name      name of the histogram
+     * @param histogram histogram to describe
+     */
+    private void append(StringBuilder builder, String name, Histogram histogram) {
+        builder.append(name).append(" count=").append(histogram.getCount())
+               .append(" mean=").append(String.format("%.1f", histogram.getMean()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            builder.append(' ').append(PERCENTILE_NAMES[i]).append('=')
+                   .append(histogram.getPercentile(PERCENTILES[i]));
+        }
+        builder.append(" max=").append(histogram.getMax()).append('\n');
+    }
+
+    public String toString() {
+        return dump();
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Management interface of Metrics, so the counters and latencies can be 
+ * read with any JMX client, like jconsole, while the program runs.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+public interface MetricsMBean {
+
+    long getQueries();
+
+    long getCacheHits();
+
+    double getMeanNodes();
+
+    double getMeanCells();
+
+    double getMeanCandidates();
+
+    double getMeanEscalations();
+
+    /**
+     * Takes a String stage and a double percentile as input. Returns the
+     * percentile of the latency of stage in microseconds.
+     */
+    long getLatencyMicros(String stage, double percentile);
+
+    /**
+     * Returns every histogram as text.
+     */
+    String dump();
+}
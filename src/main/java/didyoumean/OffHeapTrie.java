@@ -0,0 +1,390 @@
+/**
+ * A Trie whose nodes are stored outside the Java heap, in direct
+ * ByteBuffers, so a dictionary of many millions of URL's doesn't create a
+ * Java object per node for the garbage collector to trace. A node is a
+ * record of NODE_SIZE bytes: the id of its first child, the id of its next
+ * sibling, its letter and its flags. The children of a node are a list of
+ * siblings sorted on their letter. Nodes are identified by their id, the
+ * top node has id 0, which is never a child, so 0 also means no node. The
+ * records are kept in chunks of CHUNK_NODES nodes, so the trie can grow
+ * without copying them and can hold up to Integer.MAX_VALUE nodes.
+ *
+ * Usage: java didyoumean.OffHeapTrie [urlFile], which builds the trie and
+ * prints its footprint.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.nio.*;
+import java.util.*;
+
+public class OffHeapTrie implements URLDictionary {
+
+    public static final int NODE_SIZE = 12;
+
+    private static final String URL_PATH = Reader.DATA_PATH + "URLs/";
+    private static final int CHUNK_BITS = 20;
+    private static final int CHUNK_NODES = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_NODES - 1;
+    private static final int FIRST_CHILD = 0;
+    private static final int NEXT_SIBLING = 4;
+    private static final int LETTER = 8;
+    private static final int FLAGS = 10;
+    private static final char WORD = 1;
+    private static final int TOP = 0;
+    private static final int NONE = 0;
+
+    ByteBuffer[] chunks;
+    int nodeCount;
+    int wordCount;
+    int maxLength;
+
+    public static void main(String[] args) {
+        String urlFile = URL_PATH + "governmentURLs.txt";
+        if (args.length > 0) {
+            urlFile = args[0];
+        }
+        System.out.println(new Reader().readInOffHeapTrie(urlFile).getFootprint());
+    }
+
+    /**
+     * Constructor of OffHeapTrie. Allocate the first chunk and create the
+     * top node in it.
+     */
+    public OffHeapTrie() {
+        chunks = new ByteBuffer[0];
+        newNode(' ');
+    }
+
+    /**
+     * Takes a String[] words, sorted, as input. Build an OffHeapTrie of
+     * words in one pass. The nodes of the word before are kept in path. A
+     * word shares the nodes of the prefix it has in common with the word
+     * before it, and the node after that prefix becomes the next sibling of
+     * the node of the word before at the same depth, which is the last
+     * child of their parent since the words are sorted. So no list of
+     * siblings has to be walked. Duplicate words are skipped. Return the
+     * OffHeapTrie.
+     *
+     * @param  words words to build the OffHeapTrie of, sorted
+     * @return       OffHeapTrie containing every word of words
+     */
+    public static OffHeapTrie fromSorted(String[] words) {
+        OffHeapTrie trie = new OffHeapTrie();
+        int[] path = new int[1];
+        String previous = "";
+        for (int w = 0; w < words.length; w++) {
+            String word = words[w];
+            int common = 0;
+            int shared = Math.min(word.length(), previous.length());
+            while (common < shared && word.charAt(common) == previous.charAt(common)) {
+                common++;
+            }
+            if (w > 0 && common == word.length() && common == previous.length()) {
+                continue;
+            }
+            if (path.length < word.length() + 1) {
+                path = Arrays.copyOf(path, Math.max(word.length() + 1,
+                                                    path.length * 2));
+            }
+            for (int depth = common; depth < word.length(); depth++) {
+                int node = trie.newNode(word.charAt(depth));
+                if (depth == common && common < previous.length()) {
+                    trie.setInt(path[depth+1], NEXT_SIBLING, node);
+                } else {
+                    trie.setInt(path[depth], FIRST_CHILD, node);
+                }
+                path[depth+1] = node;
+            }
+            trie.setWord(path[word.length()]);
+            trie.maxLength = Math.max(trie.maxLength, word.length());
+            previous = word;
+        }
+        return trie;
+    }
+
+    /**
+     * Takes a char letter as input. Create a node with letter as its value
+     * and no children or siblings, allocating a new chunk if the last one
+     * is full. Return its id.
+     *
+     * @param  letter letter of the new node
+     * @return        id of the new node
+     */
+    private int newNode(char letter) {
+        if (nodeCount == Integer.MAX_VALUE) {
+            throw new IllegalStateException("OffHeapTrie can't hold more nodes");
+        }
+        int chunk = nodeCount >>> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            chunks[chunk] = ByteBuffer.allocateDirect(CHUNK_NODES * NODE_SIZE)
+                                      .order(ByteOrder.nativeOrder());
+        }
+        int node = nodeCount++;
+        setInt(node, FIRST_CHILD, NONE);
+        setInt(node, NEXT_SIBLING, NONE);
+        chunks[chunk].putChar(offset(node) + LETTER, letter);
+        chunks[chunk].putChar(offset(node) + FLAGS, (char) 0);
+        return node;
+    }
+
+    /**
+     * Takes an int node as input. Return the offset of the record of node
+     * within its chunk.
+     *
+     * @param  node id of a node
+     * @return      offset of node in its chunk
+     */
+    private static int offset(int node) {
+        return (node & CHUNK_MASK) * NODE_SIZE;
+    }
+
+    /**
+     * Takes an int node and an int field as input. Return the int at field
+     * in the record of node.
+     *
+     * @param  node  id of a node
+     * @param  field offset of the field in the record
+     * @return       value of the field
+     */
+    private int getInt(int node, int field) {
+        return chunks[node >>> CHUNK_BITS].getInt(offset(node) + field);
+    }
+
+    /**
+     * Takes an int node, an int field and an int value as input. Set the int
+     * at field in the record of node to value.
+     *
+     * @param node  id of a node
+     * @param field offset of the field in the record
+     * @param value new value of the field
+     */
+    private void setInt(int node, int field, int value) {
+        chunks[node >>> CHUNK_BITS].putInt(offset(node) + field, value);
+    }
+
+    /**
+     * Takes an int node as input. Return the letter of node.
+     *
+     * @param  node id of a node
+     * @return      letter of node
+     */
+    private char getLetter(int node) {
+        return chunks[node >>> CHUNK_BITS].getChar(offset(node) + LETTER);
+    }
+
+    /**
+     * Takes an int node as input. Return true if node is the end of a word.
+     *
+     * @param  node id of a node
+     * @return      true if node is a word
+     */
+    private boolean isWord(int node) {
+        return (chunks[node >>> CHUNK_BITS].getChar(offset(node) + FLAGS)
+                & WORD) != 0;
+    }
+
+    /**
+     * Takes an int node as input. Mark node as the end of a word, counting
+     * it if it wasn't one yet.
+     *
+     * @param node id of the last node of a word
+     */
+    private void setWord(int node) {
+        if (!isWord(node)) {
+            chunks[node >>> CHUNK_BITS].putChar(offset(node) + FLAGS, WORD);
+            wordCount++;
+        }
+    }
+
+    /**
+     * Takes an int node and a char letter as input. Walk the children of
+     * node, which are sorted, until the one with letter. Return its id, or
+     * NONE if node has no child with letter.
+     *
+     * @param  node   id of the parent
+     * @param  letter letter of the child
+     * @return        id of the child, NONE if there is none
+     */
+    private int getChild(int node, char letter) {
+        int child = getInt(node, FIRST_CHILD);
+        while (child != NONE && getLetter(child) < letter) {
+            child = getInt(child, NEXT_SIBLING);
+        }
+        return child != NONE && getLetter(child) == letter ? child : NONE;
+    }
+
+    /**
+     * Takes a String word as input. Walk down from the top node, creating
+     * every node of word that doesn't exist yet in its place in the sorted
+     * list of children of its parent, and mark the last node as a word.
+     *
+     * @param word word to put in the OffHeapTrie
+     */
+    public void put(String word) {
+        int node = TOP;
+        for (int i = 0; i < word.length(); i++) {
+            char letter = word.charAt(i);
+            int previous = NONE;
+            int child = getInt(node, FIRST_CHILD);
+            while (child != NONE && getLetter(child) < letter) {
+                previous = child;
+                child = getInt(child, NEXT_SIBLING);
+            }
+            if (child == NONE || getLetter(child) != letter) {
+                int next = child;
+                child = newNode(letter);
+                setInt(child, NEXT_SIBLING, next);
+                if (previous == NONE) {
+                    setInt(node, FIRST_CHILD, child);
+                } else {
+                    setInt(previous, NEXT_SIBLING, child);
+                }
+            }
+            node = child;
+        }
+        setWord(node);
+        maxLength = Math.max(maxLength, word.length());
+    }
+
+    /**
+     * Takes a String word as input. Starting at the top node, look up the
+     * child of the current node with the current letter of word. If there is
+     * none return false. Return true if the node of the last letter is a word.
+     *
+     * @param  word word to be checked if the OffHeapTrie contains it
+     * @return      true if OffHeapTrie contains word, false if it doesn't
+     */
+    public boolean contains(String word) {
+        int node = TOP;
+        for (int i = 0; i < word.length(); i++) {
+            node = getChild(node, word.charAt(i));
+            if (node == NONE) {
+                return false;
+            }
+        }
+        return isWord(node);
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Search every
+     * child of the top node the same way Trie does. The row of a node is
+     * only needed while its subtree is searched, so there is one row per
+     * depth, allocated once per query and overwritten by every node at that
+     * depth. Count the visited nodes in the QueryStats of the current
+     * thread. Return result.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all words in the OffHeapTrie within maxEdit of
+     *                   userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        ArrayList<String> result = new ArrayList<String>();
+        int[][] rows = new int[Math.max(maxLength, 1) + 1][userInput.length()+1];
+        for (int i = 0; i < rows[0].length; i++) {
+            rows[0][i] = i;
+        }
+        int visited = searchChildren(TOP, ' ', 1, userInput, maxEdit, rows,
+                                     new StringBuilder(), result);
+        QueryStats stats = QueryStats.current();
+        stats.nodes += visited;
+        stats.cells += (long) visited * userInput.length();
+        return result;
+    }
+
+    /**
+     * Takes an int node, a char letter, an int depth, a String userInput, an
+     * int maxEdit, an int[][] rows, a StringBuilder sequence and an
+     * ArrayList<String> result as input. Node has letter and the row of
+     * depth-1, sequence holds the letters from the top node to it. Calculate
+     * the row of every child in rows[depth]. If its lowest value exceeds
+     * maxEdit skip the child, else add it to result if it is a word within
+     * maxEdit and search its children. Return the number of nodes visited.
+     *
+     * @param  node      id of the node whose children are searched
+     * @param  letter    letter of node
+     * @param  depth     depth of the children of node
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @param  rows      row of every depth
+     * @param  sequence  letters from the top node to node
+     * @param  result    options found so far
+     * @return           number of nodes visited
+     */
+    private int searchChildren(int node, char letter, int depth,
+                               String userInput, int maxEdit, int[][] rows,
+                               StringBuilder sequence, ArrayList<String> result) {
+        int visited = 0;
+        int[] previousRow = depth > 1 ? rows[depth-2] : null;
+        int[] row = rows[depth-1];
+        int[] nextRow = rows[depth];
+        for (int child = getInt(node, FIRST_CHILD); child != NONE;
+             child = getInt(child, NEXT_SIBLING)) {
+            char childLetter = getLetter(child);
+            int min = EditDistanceCalc.calcNextRow(userInput, childLetter, letter,
+                                                   previousRow, row, nextRow);
+            visited++;
+            if (min > maxEdit) {
+                continue;
+            }
+            sequence.append(childLetter);
+            if (isWord(child) && nextRow[nextRow.length-1] <= maxEdit) {
+                result.add(sequence.toString());
+            }
+            if (depth + 1 < rows.length) {
+                visited += searchChildren(child, childLetter, depth + 1,
+                                          userInput, maxEdit, rows, sequence,
+                                          result);
+            }
+            sequence.setLength(sequence.length()-1);
+        }
+        return visited;
+    }
+
+    /**
+     * Returns the number of words in the OffHeapTrie.
+     *
+     * @return number of words
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Returns the number of nodes in the OffHeapTrie, the top node included.
+     *
+     * @return number of nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the bytes allocated off the heap for the nodes, the last chunk
+     * included as a whole.
+     *
+     * @return allocated bytes
+     */
+    public long getAllocatedBytes() {
+        return (long) chunks.length * CHUNK_NODES * NODE_SIZE;
+    }
+
+    /**
+     * Returns a report of the footprint of the OffHeapTrie: its words and
+     * nodes, the bytes its nodes use and are allocated, and both per word.
+     *
+     * @return footprint of the OffHeapTrie
+     */
+    public String getFootprint() {
+        long used = (long) nodeCount * NODE_SIZE;
+        int words = Math.max(wordCount, 1);
+        return String.format("urls=%d nodes=%d used=%d bytes (%.1f per url)"
+            + " allocated=%d bytes (%.1f per url)", wordCount, nodeCount, used,
+            (double) used / words, getAllocatedBytes(),
+            (double) getAllocatedBytes() / words);
+    }
+}
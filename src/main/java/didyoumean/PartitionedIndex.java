@@ -0,0 +1,206 @@
+/**
+ * A dictionary of URL's partitioned on their structure. The URL's are split
+ * into their parts with URLParts and put in a partition per top level
+ * domain, and within a partition in a Trie per bucket of lengths. A query is
+ * routed to the partitions whose top level domain is within ROUTE_DISTANCE
+ * of its own, and only the buckets of lengths within the edit distance of
+ * its length are searched, so a typo of a .com URL isn't compared against
+ * every .org, .gov or IP address. If the routed partitions have no options,
+ * the other partitions are searched as well, so a typo in the top level
+ * domain itself is still found.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class PartitionedIndex implements URLDictionary {
+
+    private static final int BUCKET_WIDTH = 4;
+    private static final int ROUTE_DISTANCE = 1;
+
+    TreeMap<String, Trie[]> partitions;
+    EditDistanceCalc edCalc;
+
+    /**
+     * Constructor of PartitionedIndex. Takes an ArrayList<String> urls as
+     * input. Sort the URL's, group them on top level domain and length
+     * bucket and build a Trie of every group.
+     *
+     * @param urls URL's to put in the index
+     */
+    public PartitionedIndex(ArrayList<String> urls) {
+        edCalc = new EditDistanceCalc();
+        String[] sorted = urls.toArray(new String[0]);
+        Arrays.sort(sorted);
+        TreeMap<String, ArrayList<ArrayList<String>>> groups =
+            new TreeMap<String, ArrayList<ArrayList<String>>>();
+        for (int i = 0; i < sorted.length; i++) {
+            String url = sorted[i];
+            ArrayList<ArrayList<String>> buckets = groups.computeIfAbsent(
+                getPartition(url), partition -> new ArrayList<ArrayList<String>>());
+            int bucket = url.length() / BUCKET_WIDTH;
+            while (buckets.size() <= bucket) {
+                buckets.add(new ArrayList<String>());
+            }
+            buckets.get(bucket).add(url);
+        }
+
+        partitions = new TreeMap<String, Trie[]>();
+        for (Map.Entry<String, ArrayList<ArrayList<String>>> entry
+                 : groups.entrySet()) {
+            ArrayList<ArrayList<String>> buckets = entry.getValue();
+            Trie[] tries = new Trie[buckets.size()];
+            for (int i = 0; i < tries.length; i++) {
+                if (!buckets.get(i).isEmpty()) {
+                    tries[i] = Trie.fromSorted(
+                        buckets.get(i).toArray(new String[0]));
+                }
+            }
+            partitions.put(entry.getKey(), tries);
+        }
+    }
+
+    /**
+     * Takes a String url as input. Return the name of the partition of url,
+     * its top level domain.
+     *
+     * @param  url URL to find the partition of
+     * @return     name of the partition of url
+     */
+    private String getPartition(String url) {
+        return new URLParts(url).getTopLevelDomain();
+    }
+
+    /**
+     * Returns the names of the partitions, sorted.
+     *
+     * @return names of the partitions
+     */
+    public Set<String> getNames() {
+        return partitions.keySet();
+    }
+
+    /**
+     * Takes a String word as input. Only the bucket of the partition word
+     * would be in can contain it. Return true if it does.
+     *
+     * @param  word word to be checked if the index contains it
+     * @return      true if the index contains word, false if it doesn't
+     */
+    public boolean contains(String word) {
+        Trie[] tries = partitions.get(getPartition(word));
+        int bucket = word.length() / BUCKET_WIDTH;
+        if (tries == null || bucket >= tries.length || tries[bucket] == null) {
+            return false;
+        }
+        return tries[bucket].contains(word);
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Search the
+     * partitions userInput is routed to, and if they have no options, the
+     * other partitions. Return the options found.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           words within maxEdit of userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        ArrayList<Trie[]> routed = new ArrayList<Trie[]>();
+        ArrayList<Trie[]> others = new ArrayList<Trie[]>();
+        route(userInput, routed, others);
+        ArrayList<String> options = search(routed, userInput, maxEdit);
+        if (options.isEmpty()) {
+            options = search(others, userInput, maxEdit);
+        }
+        return options;
+    }
+
+    /**
+     * Takes a String userInput, an int minEdit and an int maxEdit as input.
+     * Route userInput once. Then raise the edit distance from minEdit up to
+     * maxEdit, counting every raise in the QueryStats of the current thread,
+     * until getOptions would find options. Return them, empty if there are
+     * none within maxEdit.
+     *
+     * @param  userInput input to find the options for
+     * @param  minEdit   edit distance to start with
+     * @param  maxEdit   highest edit distance to try
+     * @return           the nearest words found, empty if none is within
+     *                   maxEdit
+     */
+    public ArrayList<String> getNearestOptions(String userInput, int minEdit,
+                                               int maxEdit) {
+        ArrayList<Trie[]> routed = new ArrayList<Trie[]>();
+        ArrayList<Trie[]> others = new ArrayList<Trie[]>();
+        route(userInput, routed, others);
+        for (int edit = minEdit; edit <= maxEdit; edit++) {
+            if (edit > minEdit) {
+                QueryStats.current().escalations++;
+            }
+            ArrayList<String> options = search(routed, userInput, edit);
+            if (options.isEmpty()) {
+                options = search(others, userInput, edit);
+            }
+            if (!options.isEmpty()) {
+                return options;
+            }
+        }
+        return new ArrayList<String>();
+    }
+
+    /**
+     * Takes a String userInput, an ArrayList<Trie[]> routed and an
+     * ArrayList<Trie[]> others as input. Add the partitions whose top level
+     * domain is within ROUTE_DISTANCE of the one of userInput to routed and
+     * the rest to others. If userInput has no top level domain, there is
+     * nothing to route on, so every partition is routed.
+     *
+     * @param userInput input to route
+     * @param routed    partitions to search first
+     * @param others    partitions to search if routed has no options
+     */
+    private void route(String userInput, ArrayList<Trie[]> routed,
+                       ArrayList<Trie[]> others) {
+        String domain = getPartition(userInput);
+        for (Map.Entry<String, Trie[]> entry : partitions.entrySet()) {
+            if (domain.isEmpty() || edCalc.editDistance(domain, entry.getKey(),
+                    ROUTE_DISTANCE) <= ROUTE_DISTANCE) {
+                routed.add(entry.getValue());
+            } else {
+                others.add(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Takes an ArrayList<Trie[]> selected, a String userInput and an int
+     * maxEdit as input. Search the buckets of every partition in selected
+     * whose lengths are within maxEdit of the length of userInput. Return
+     * the words within maxEdit of userInput they contain.
+     *
+     * @param  selected  partitions to search
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           words in selected within maxEdit of userInput
+     */
+    private ArrayList<String> search(ArrayList<Trie[]> selected,
+                                     String userInput, int maxEdit) {
+        ArrayList<String> options = new ArrayList<String>();
+        int from = Math.max(0, userInput.length() - maxEdit) / BUCKET_WIDTH;
+        int to = (userInput.length() + maxEdit) / BUCKET_WIDTH;
+        for (int i = 0; i < selected.size(); i++) {
+            Trie[] tries = selected.get(i);
+            for (int bucket = from; bucket <= to && bucket < tries.length;
+                 bucket++) {
+                if (tries[bucket] != null) {
+                    options.addAll(tries[bucket].getOptions(userInput, maxEdit));
+                }
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,417 @@
+/**
+ * Class that calculates the probabbility of a String transformation to another
+ * String using confusion matrices and addOneSmoothing smoothing. All 
+ * probabilities are kept as logarithms, so they don't underflow on long 
+ * URL's. The confusion matrices only count edits between the letters a-z, 
+ * the digits and URL punctuation get the average count of a matrix.
+ * The confusion matrices used in this implementation are from the paper:
+ * "A Spelling Correction Program Based on a Noisy Channel Model",
+ * Kemighan & Church & Gale.
+ * 
+ * @author Joeri Sleegers
+ */ 
+
+package didyoumean;
+
+import java.io.*;
+import java.util.*;
+
+public class ProbabillityCalc {
+    
+    private static final String CONFUSION_MATRIX_PATH = Reader.DATA_PATH + "confusionMatrices/";
+    private static final int ALPHABET_SIZE = 26;
+    private static final String URL_ALPHABET = 
+        "abcdefghijklmnopqrstuvwxyz0123456789.-/:_";
+    private static final int OTHER = URL_ALPHABET.length();
+    private static final int ASCII_SIZE = 128;
+    private static final byte[] ALPHABET_INDEX = calcAlphabetIndex();
+
+    private static final ThreadLocal<CostRows> ROWS =
+        ThreadLocal.withInitial(CostRows::new);
+
+    int[][] insTable;
+    int[][] delTable;
+    int[][] subTable;
+    int[][] transTable;
+    int insTotal;
+    int delTotal;
+    int subTotal;
+    int transTotal;
+    double maxProbEdit;
+    double minTransCost;
+    double[][] insCost;
+    double[][] delCost;
+    double[][] subCost;
+    double[][] transCost;
+
+    /**
+     * Contructor of class probabillity. Reads in the confusion matrices.
+     * Calculates the confusion totals of the matrices and the highest 
+     * probabillity of a single edit.
+     */ 
+    public ProbabillityCalc() {
+        Reader rd = new Reader();
+        insTable   = rd.readInConfusionMatrix(CONFUSION_MATRIX_PATH + "insertion.txt");
+        delTable   = rd.readInConfusionMatrix(CONFUSION_MATRIX_PATH + "deletion.txt");
+        subTable   = rd.readInConfusionMatrix(CONFUSION_MATRIX_PATH + "substitution.txt");
+        transTable = rd.readInConfusionMatrix(CONFUSION_MATRIX_PATH + "transposition.txt");
+        insTotal   = getTotal(insTable);
+        delTotal   = getTotal(delTable);
+        transTotal = getTotal(transTable);
+        subTotal   = getTotal(subTable);
+        maxProbEdit = Math.max(
+            Math.max(addOneSmoothing(getMax(insTable), insTotal),
+                     addOneSmoothing(getMax(delTable), delTotal)),
+            Math.max(addOneSmoothing(getMax(subTable), subTotal),
+                     addOneSmoothing(getMax(transTable), transTotal)));
+        insCost   = calcCostTable(insTable, insTotal);
+        delCost   = calcCostTable(delTable, delTotal);
+        subCost   = calcCostTable(subTable, subTotal);
+        transCost = calcCostTable(transTable, transTotal);
+        minTransCost = getMin(transCost);
+    }
+    
+    /**
+     * Takes an int[][] matrix as input. Iterator through every element and 
+     * add it to int total. Return total.
+     *
+     * @param  matrix two dimensional array of integers
+     * @return        the sum of all integers in matrix
+     */ 
+    private int getTotal(int[][] matrix) {
+        int total = 0;
+        for (int i = 0; i < matrix.length; i++ ) {
+            for (int j = 0; j < matrix[0].length; j++) {
+                total = total + matrix[i][j];
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Takes an int[][] matrix as input. Return the highest int in matrix.
+     *
+     * @param  matrix two dimensional array of integers
+     * @return        the highest integer in matrix
+     */ 
+    private int getMax(int[][] matrix) {
+        int max = 0;
+        for (int i = 0; i < matrix.length; i++ ) {
+            for (int j = 0; j < matrix[0].length; j++) {
+                max = Math.max(max, matrix[i][j]);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Takes a double[][] table as input. Return the lowest double in table.
+     *
+     * @param  table two dimensional array of doubles
+     * @return       the lowest double in table
+     */ 
+    private double getMin(double[][] table) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < table.length; i++ ) {
+            for (int j = 0; j < table[0].length; j++) {
+                min = Math.min(min, table[i][j]);
+            }
+        }
+        return min;
+    }
+    
+    /**
+     * Returns the cost of the most probable transposition. A row of 
+     * calcNextCostRow can get a transposition from the row two letters 
+     * back, so its lowest cost can be below the lowest cost of the row 
+     * before it, but never below that of the row two back plus this.
+     *
+     * @return lowest cost of a transposition
+     */ 
+    public double getMinTransCost() {
+        return minTransCost;
+    }
+    
+    /**
+     * Takes an int editDistance as input. Every edit on the path found by 
+     * calcLogProb adds at most the logarithm of maxProbEdit, and the path 
+     * has exactly editDistance edits. Return the highest log probability a 
+     * transformation with editDistance edits can get.
+     *
+     * @param  editDistance edit distance of a transformation
+     * @return              upper bound of the log probability of the 
+     *                      transformation
+     */ 
+    public double calcMaxLogProb(int editDistance) {
+        return editDistance * Math.log(maxProbEdit);
+    }
+    
+    /**
+     * Takes an int[][] matrix and an int total as input. Create a table with 
+     * the cost of every edit in matrix, the negative logarithm of its 
+     * probabillity with addOneSmoothing smoothing, so costs can be added 
+     * where probabilities would be multiplied. The table covers 
+     * URL_ALPHABET and a last row and column for every other charachter. 
+     * Edits that involve a charachter that isn't a letter aren't counted in
+     * matrix, so they get the average count of matrix. Return the table.
+     *
+     * @param  matrix matrix containing the count of edits
+     * @param  total  count of total edits
+     * @return        table of the costs of the edits, indexed by letterIndex
+     */ 
+    private double[][] calcCostTable(int[][] matrix, int total) {
+        double average = (double) total / (ALPHABET_SIZE * ALPHABET_SIZE);
+        double[][] table = new double[OTHER+1][OTHER+1];
+        for (int x = 0; x <= OTHER; x++) {
+            for (int y = 0; y <= OTHER; y++) {
+                double count = average;
+                if (x < ALPHABET_SIZE && y < ALPHABET_SIZE) {
+                    count = x < matrix.length ? matrix[x][y] : 0;
+                }
+                table[x][y] = -Math.log(addOneSmoothing(count, total));
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Returns a table with the index in URL_ALPHABET of every ASCII 
+     * charachter, OTHER if it isn't in it. Uppercase letters get the index 
+     * of their lowercase letter.
+     *
+     * @return index of every ASCII charachter in the cost tables
+     */ 
+    private static byte[] calcAlphabetIndex() {
+        byte[] index = new byte[ASCII_SIZE];
+        Arrays.fill(index, (byte) OTHER);
+        for (int i = 0; i < URL_ALPHABET.length(); i++) {
+            char letter = URL_ALPHABET.charAt(i);
+            index[letter] = (byte) i;
+            index[Character.toUpperCase(letter)] = (byte) i;
+        }
+        return index;
+    }
+    
+    /**
+     * Takes a char letter as input. Return the index of letter in the cost
+     * tables, OTHER if it isn't in URL_ALPHABET.
+     *
+     * @param  letter charachter to get the index of
+     * @return        index of letter in the cost tables
+     */ 
+    private int letterIndex(char letter) {
+        if (letter >= ASCII_SIZE) {
+            return OTHER;
+        }
+        return ALPHABET_INDEX[letter];
+    }
+    
+    /**
+     * Takes a String input, a char letter, a char previousLetter, a double[]
+     * previousRow, a double[] row and a double[] nextRow as input. Works like
+     * EditDistanceCalc.calcNextRow, but every edit costs the negative 
+     * logarithm of its probabillity instead of one, so the rows hold the 
+     * cost of the most probable way input was typed for a sequence. The 
+     * sequence is what was meant and input what was typed: skipping letter 
+     * is a deletion after previousLetter, an extra charachter of input is an
+     * insertion after the charachter before it, typing another charachter 
+     * for letter a substitution and swapping previousLetter and letter a 
+     * transposition. PreviousRow may be null if the sequence is empty. 
+     * Return the lowest cost in nextRow.
+     *
+     * @param input          what was typed
+     * @param letter         letter the sequence is extended with
+     * @param previousLetter last letter of the sequence before extending it
+     * @param previousRow    row of the sequence without its last letter
+     * @param row            row of the sequence
+     * @param nextRow        row to fill for the extended sequence
+     * @return               lowest cost in nextRow
+     */ 
+    public double calcNextCostRow(String input, char letter, char previousLetter,
+                                  double[] previousRow, double[] row,
+                                  double[] nextRow) {
+        int letterIndex = letterIndex(letter);
+        int previousIndex = letterIndex(previousLetter);
+        double deletion = delCost[previousIndex][letterIndex];
+        nextRow[0] = row[0] + deletion;
+        double min = nextRow[0];
+
+        int typedIndex = OTHER;
+        for (int j = 1; j < nextRow.length; j++) {
+            char typed = input.charAt(j-1);
+            int previousTypedIndex = typedIndex;
+            typedIndex = letterIndex(typed);
+            double cost = row[j-1];
+            if (typed != letter) {
+                cost += subCost[typedIndex][letterIndex];
+            }
+            cost = Math.min(cost, row[j] + deletion);
+            cost = Math.min(cost, nextRow[j-1] 
+                                  + insCost[previousTypedIndex][typedIndex]);
+            if (previousRow != null && j > 1 && input.charAt(j-2) == letter
+                && typed == previousLetter) {
+                cost = Math.min(cost, previousRow[j-2] 
+                                      + transCost[previousIndex][letterIndex]);
+            }
+            nextRow[j] = cost;
+            min = Math.min(min, cost);
+        }
+        return min;
+    }
+    
+    /**
+     * Takes a String input as input. Return the first row of the cost 
+     * matrix, the cost of typing every prefix of input when nothing was 
+     * meant, which are all insertions.
+     *
+     * @param  input what was typed
+     * @return       costs of the empty sequence against every prefix of input
+     */ 
+    public double[] calcFirstCostRow(String input) {
+        double[] row = new double[input.length()+1];
+        int typedIndex = OTHER;
+        for (int j = 1; j < row.length; j++) {
+            int previousTypedIndex = typedIndex;
+            typedIndex = letterIndex(input.charAt(j-1));
+            row[j] = row[j-1] + insCost[previousTypedIndex][typedIndex];
+        }
+        return row;
+    }
+    
+    /**
+     * Takes a String typed and a String meant as input. Calculate the edit 
+     * distance between them and the log probabillity of the most probable
+     * way meant was typed as typed with that many edits, in one pass of the
+     * Wagner-Fischer matrix. Every field holds both the edit distance and 
+     * the cost of the cheapest path with that distance. A field takes the 
+     * edit with the lowest distance, and of those the lowest cost, where 
+     * edits cost the same as in calcNextCostRow. Equal charachters copy the
+     * field diagonally up to the left, like calcEditDistance. Only three 
+     * rows of each are kept, which are reused between calls on the same 
+     * thread, so nothing is allocated. Return the log probabillity, the 
+     * negative cost of the bottom right field.
+     *
+     * @param  typed what was typed
+     * @param  meant what may have been meant
+     * @return       log probabillity of typing typed when meant was meant
+     */ 
+    public double calcLogProb(String typed, String meant) {
+        int length = typed.length();
+        CostRows rows = ROWS.get();
+        rows.ensureCapacity(length + 1);
+        int[] previousDistances = rows.distances[0];
+        int[] distances = rows.distances[1];
+        int[] nextDistances = rows.distances[2];
+        double[] previousCosts = rows.costs[0];
+        double[] costs = rows.costs[1];
+        double[] nextCosts = rows.costs[2];
+        QueryStats.addCells((long) length * meant.length());
+
+        int typedIndex = OTHER;
+        distances[0] = 0;
+        costs[0] = 0;
+        for (int j = 1; j <= length; j++) {
+            int previousTypedIndex = typedIndex;
+            typedIndex = letterIndex(typed.charAt(j-1));
+            distances[j] = j;
+            costs[j] = costs[j-1] + insCost[previousTypedIndex][typedIndex];
+        }
+
+        char previousLetter = ' ';
+        int previousIndex = OTHER;
+        for (int i = 1; i <= meant.length(); i++) {
+            char letter = meant.charAt(i-1);
+            int letterIndex = letterIndex(letter);
+            double deletion = delCost[previousIndex][letterIndex];
+            nextDistances[0] = i;
+            nextCosts[0] = costs[0] + deletion;
+
+            typedIndex = OTHER;
+            for (int j = 1; j <= length; j++) {
+                char current = typed.charAt(j-1);
+                int previousTypedIndex = typedIndex;
+                typedIndex = letterIndex(current);
+                if (current == letter) {
+                    nextDistances[j] = distances[j-1];
+                    nextCosts[j] = costs[j-1];
+                    continue;
+                }
+                int distance = distances[j-1] + 1;
+                double cost = costs[j-1] + subCost[typedIndex][letterIndex];
+
+                int other = distances[j] + 1;
+                double otherCost = costs[j] + deletion;
+                if (other < distance || (other == distance && otherCost < cost)) {
+                    distance = other;
+                    cost = otherCost;
+                }
+                other = nextDistances[j-1] + 1;
+                otherCost = nextCosts[j-1] 
+                            + insCost[previousTypedIndex][typedIndex];
+                if (other < distance || (other == distance && otherCost < cost)) {
+                    distance = other;
+                    cost = otherCost;
+                }
+                if (i > 1 && j > 1 && typed.charAt(j-2) == letter
+                    && current == previousLetter) {
+                    other = previousDistances[j-2] + 1;
+                    otherCost = previousCosts[j-2] 
+                                + transCost[previousIndex][letterIndex];
+                    if (other < distance 
+                        || (other == distance && otherCost < cost)) {
+                        distance = other;
+                        cost = otherCost;
+                    }
+                }
+                nextDistances[j] = distance;
+                nextCosts[j] = cost;
+            }
+
+            int[] oldDistances = previousDistances;
+            previousDistances = distances;
+            distances = nextDistances;
+            nextDistances = oldDistances;
+            double[] oldCosts = previousCosts;
+            previousCosts = costs;
+            costs = nextCosts;
+            nextCosts = oldCosts;
+            previousLetter = letter;
+            previousIndex = letterIndex;
+        }
+        return -costs[length];
+    }
+    
+    /**
+     * Takes a double count and an int total as input.
+     * Calculate the probabbility using addOneSmoothing-smoothing., therefor add 1 to count.
+     * Because every object in v occurs only ones we can multiply it by two.
+     * return this probabbility.
+     *
+     * @param count count of specific edit
+     * @param total count of total edits
+     * @return  
+     */ 
+    private double addOneSmoothing(double count, int total) {
+        return (count+1)/((double)total*2);
+    }
+
+    /**
+     * The rows calcLogProb keeps per thread: three rows of edit distances and
+     * three rows of costs, grown when a longer string comes along.
+     */ 
+    private static class CostRows {
+
+        int[][] distances = new int[3][0];
+        double[][] costs = new double[3][0];
+
+        void ensureCapacity(int length) {
+            if (distances[0].length >= length) {
+                return;
+            }
+            for (int i = 0; i < 3; i++) {
+                distances[i] = new int[length];
+                costs[i] = new double[length];
+            }
+        }
+    }
+}
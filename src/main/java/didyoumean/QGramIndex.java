@@ -0,0 +1,351 @@
+/**
+ * Implementation of a q-gram inverted index. Every URL is padded with Q-1
+ * PADDING charachters on both sides and split into its overlapping q-grams,
+ * and for every q-gram the ids of the URL's containing it are stored. The
+ * URL's get their ids in order of length, so the URL's of a range of lengths
+ * have a range of ids. A posting list holds the differences between its
+ * sorted ids as variable length bytes, all in one byte array.
+ *
+ * A URL within k edits of an input of length n shares at least n + Q - 1 -
+ * k * (Q + 1) q-grams with it, since a substitution, insertion or deletion
+ * destroys at most Q of them and a transposition at most Q + 1 (count
+ * filtering), and its length differs at most k from n (length filtering).
+ * Only the URL's that pass both filters are verified with EditDistanceCalc.
+ * When k gets close to n / (Q + 1) the count filter lets everything through,
+ * then the URL's of the right lengths are verified one by one.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class QGramIndex implements URLDictionary {
+
+    public static final int Q = 3;
+    private static final char PADDING = '\0';
+    private static final int CHAR_BITS = 8;
+    private static final int MAX_CHAR = (1 << CHAR_BITS) - 1;
+    private static final int ID_BITS = Integer.SIZE;
+    private static final int BYTE_BITS = 7;
+    private static final int LOW_BITS = (1 << BYTE_BITS) - 1;
+
+    String[] words;
+    int[] lengthStarts;
+    int[] gramKeys;
+    int[] postingStarts;
+    byte[] postings;
+    EditDistanceCalc edCalc;
+
+    /**
+     * Constructor of QGramIndex. Takes an ArrayList<String> urls as input.
+     * Sort the distinct URL's on length, and then alphabetically, to give
+     * them their ids, and keep where every length starts. Create a long for
+     * every q-gram of every URL, with the q-gram in the high bits and the
+     * id in the low ID_BITS bits, and sort them, so the pairs of every
+     * q-gram are together in order of id. Write them out as posting lists.
+     *
+     * @param urls URL's to put in the index
+     */
+    public QGramIndex(ArrayList<String> urls) {
+        edCalc = new EditDistanceCalc();
+        words = new HashSet<String>(urls).toArray(new String[0]);
+        Arrays.sort(words, Comparator.comparingInt(String::length)
+                                     .thenComparing(Comparator.naturalOrder()));
+        int maxLength = words.length == 0 ? 0 : words[words.length-1].length();
+        lengthStarts = new int[maxLength+2];
+        for (int length = 0, id = 0; length < lengthStarts.length; length++) {
+            while (id < words.length && words[id].length() < length) {
+                id++;
+            }
+            lengthStarts[length] = id;
+        }
+
+        int pairCount = 0;
+        for (int id = 0; id < words.length; id++) {
+            pairCount += words[id].length() + Q - 1;
+        }
+        long[] pairs = new long[pairCount];
+        pairCount = 0;
+        for (int id = 0; id < words.length; id++) {
+            String padded = pad(words[id]);
+            for (int i = 0; i + Q <= padded.length(); i++) {
+                pairs[pairCount++] = ((long) gramKey(padded, i) << ID_BITS) | id;
+            }
+        }
+        Arrays.parallelSort(pairs);
+        buildPostings(pairs);
+    }
+
+    /**
+     * Takes a long[] pairs of q-grams and ids, sorted, as input. Fill
+     * gramKeys with every distinct q-gram, postingStarts with where its
+     * posting list starts in postings, and postings with the differences
+     * between the ids of every q-gram, each id once.
+     *
+     * @param pairs q-grams with the id of a URL containing them, sorted
+     */
+    private void buildPostings(long[] pairs) {
+        int keys = 0;
+        for (int i = 0; i < pairs.length; i++) {
+            if (i == 0 || (pairs[i] >>> ID_BITS) != (pairs[i-1] >>> ID_BITS)) {
+                keys++;
+            }
+        }
+        gramKeys = new int[keys];
+        postingStarts = new int[keys+1];
+        byte[] bytes = new byte[pairs.length * 2];
+        int size = 0;
+        int key = -1;
+        long previousId = 0;
+        for (int i = 0; i < pairs.length; i++) {
+            int gram = (int) (pairs[i] >>> ID_BITS);
+            long id = pairs[i] & ((1L << ID_BITS) - 1);
+            if (i == 0 || gram != gramKeys[key]) {
+                key++;
+                gramKeys[key] = gram;
+                postingStarts[key] = size;
+                previousId = 0;
+            } else if (id == previousId) {
+                continue;
+            }
+            if (bytes.length - size < Integer.BYTES + 1) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            long delta = id - previousId;
+            while (delta > LOW_BITS) {
+                bytes[size++] = (byte) ((delta & LOW_BITS) | (LOW_BITS + 1));
+                delta >>>= BYTE_BITS;
+            }
+            bytes[size++] = (byte) delta;
+            previousId = id;
+        }
+        postingStarts[keys] = size;
+        postings = Arrays.copyOf(bytes, size);
+    }
+
+    /**
+     * Takes a String word as input. Return word with Q-1 PADDING
+     * charachters on both sides, so its first and last charachters are in
+     * as many q-grams as the others.
+     *
+     * @param  word word to pad
+     * @return      padded word
+     */
+    private static String pad(String word) {
+        StringBuilder padded = new StringBuilder(word.length() + 2 * (Q - 1));
+        for (int i = 0; i < Q - 1; i++) {
+            padded.append(PADDING);
+        }
+        padded.append(word);
+        for (int i = 0; i < Q - 1; i++) {
+            padded.append(PADDING);
+        }
+        return padded.toString();
+    }
+
+    /**
+     * Takes a String padded and an int start as input. Return the q-gram of
+     * padded at start as an int of CHAR_BITS bits per charachter.
+     * Charachters above MAX_CHAR share the highest code, that only lets more
+     * URL's through the count filter.
+     *
+     * @param  padded padded word
+     * @param  start  index of the first charachter of the q-gram
+     * @return        key of the q-gram
+     */
+    private static int gramKey(String padded, int start) {
+        int key = 0;
+        for (int i = start; i < start + Q; i++) {
+            key = (key << CHAR_BITS) | Math.min(padded.charAt(i), MAX_CHAR);
+        }
+        return key;
+    }
+
+    /**
+     * Takes an int length and an int maxEdit as input. Return the lowest
+     * number of q-grams an input of length must share with a URL within
+     * maxEdit of it. Zero or less means the count filter can't skip any URL.
+     *
+     * @param  length  length of the input
+     * @param  maxEdit maximum edit distance between the input and a URL
+     * @return         q-grams a URL must share with the input
+     */
+    public static int countThreshold(int length, int maxEdit) {
+        return length + Q - 1 - maxEdit * (Q + 1);
+    }
+
+    /**
+     * Takes a String word as input. Only the URL's with the length of word
+     * can be word, so binary search their ids for it.
+     *
+     * @param  word word to be checked if the index contains it
+     * @return      true if the index contains word, false if it doesn't
+     */
+    public boolean contains(String word) {
+        if (word.length() + 1 >= lengthStarts.length) {
+            return false;
+        }
+        return Arrays.binarySearch(words, lengthStarts[word.length()],
+                                   lengthStarts[word.length()+1], word) >= 0;
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Return the URL's
+     * within maxEdit of userInput, the nearest options of getNearestOptions
+     * with maxEdit as both bounds, except that every one is returned.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all URL's in the index within maxEdit of userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        ArrayList<String> result = new ArrayList<String>();
+        int length = userInput.length();
+        int from = lengthStart(length - maxEdit);
+        int to = lengthStart(length + maxEdit + 1);
+        int[] counts = countGrams(userInput, from, to, maxEdit);
+        int threshold = countThreshold(length, maxEdit) - duplicateGrams(userInput);
+        long[] masks = edCalc.calcPatternMasks(userInput);
+        for (int id = from; id < to; id++) {
+            if ((threshold <= 0 || counts[id - from] >= threshold)
+                && edCalc.editDistance(userInput, masks, words[id], maxEdit) <= maxEdit) {
+                result.add(words[id]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Takes a String userInput, an int minEdit and an int maxEdit as input.
+     * Count the q-grams the URL's within the lengths of maxEdit share with
+     * userInput once. Then raise the edit distance from minEdit up to
+     * maxEdit, counting every raise in the QueryStats of the current thread.
+     * At every edit distance, verify the URL's that pass its length and
+     * count filter and weren't verified yet, calculating their edit
+     * distance up to maxEdit. The filters only get looser, so every URL is
+     * verified at most once. Return the URL's within the first edit distance
+     * that has any, empty if none is within maxEdit.
+     *
+     * @param  userInput input to find the options for
+     * @param  minEdit   edit distance to start with
+     * @param  maxEdit   highest edit distance to try
+     * @return           the nearest URL's in the index, empty if none is
+     *                   within maxEdit
+     */
+    public ArrayList<String> getNearestOptions(String userInput, int minEdit,
+                                               int maxEdit) {
+        ArrayList<String> result = new ArrayList<String>();
+        int length = userInput.length();
+        int from = lengthStart(length - maxEdit);
+        int to = lengthStart(length + maxEdit + 1);
+        int[] counts = countGrams(userInput, from, to, minEdit);
+        int[] distances = new int[to - from];
+        Arrays.fill(distances, -1);
+        int duplicates = duplicateGrams(userInput);
+        long[] masks = edCalc.calcPatternMasks(userInput);
+
+        for (int edit = minEdit; edit <= maxEdit && result.isEmpty(); edit++) {
+            if (edit > minEdit) {
+                QueryStats.current().escalations++;
+            }
+            int threshold = countThreshold(length, edit) - duplicates;
+            int end = lengthStart(length + edit + 1);
+            for (int id = lengthStart(length - edit); id < end; id++) {
+                int index = id - from;
+                if (distances[index] < 0
+                    && (threshold <= 0 || counts[index] >= threshold)) {
+                    distances[index] = edCalc.editDistance(userInput, masks,
+                                                           words[id], maxEdit);
+                }
+                if (distances[index] >= 0 && distances[index] <= edit) {
+                    result.add(words[id]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Takes an int length as input. Return the first id of a URL with at
+     * least length charachters.
+     *
+     * @param  length length of the URL's
+     * @return        first id of a URL at least length long
+     */
+    private int lengthStart(int length) {
+        return lengthStarts[Math.max(0, Math.min(length, lengthStarts.length-1))];
+    }
+
+    /**
+     * Takes a String userInput, an int from, an int to and an int maxEdit as
+     * input. If the count filter can't skip any URL at maxEdit, return
+     * null, it is only looser at higher edit distances. Else go through the
+     * posting list of every distinct q-gram of userInput, decoding only up
+     * to the ids below to. Return for every id from from up to to how many
+     * of those q-grams its URL contains.
+     *
+     * @param  userInput input to count the q-grams of
+     * @param  from      first id to count
+     * @param  to        id after the last id to count
+     * @param  maxEdit   lowest edit distance the counts are used for
+     * @return           shared q-grams by id minus from, null if not needed
+     */
+    private int[] countGrams(String userInput, int from, int to, int maxEdit) {
+        if (countThreshold(userInput.length(), maxEdit)
+            - duplicateGrams(userInput) <= 0) {
+            return null;
+        }
+        int[] counts = new int[to - from];
+        HashSet<Integer> seen = new HashSet<Integer>();
+        String padded = pad(userInput);
+        for (int i = 0; i + Q <= padded.length(); i++) {
+            int key = Arrays.binarySearch(gramKeys, gramKey(padded, i));
+            if (key < 0 || !seen.add(key)) {
+                continue;
+            }
+            long id = 0;
+            int position = postingStarts[key];
+            while (position < postingStarts[key+1]) {
+                long delta = 0;
+                int shift = 0;
+                byte next;
+                do {
+                    next = postings[position++];
+                    delta |= (long) (next & LOW_BITS) << shift;
+                    shift += BYTE_BITS;
+                } while (next < 0);
+                id += delta;
+                if (id >= to) {
+                    break;
+                }
+                if (id >= from) {
+                    counts[(int) id - from]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Takes a String userInput as input. Return how many of the q-grams of
+     * userInput are a repeat of an earlier one. The posting lists only say
+     * whether a URL contains a q-gram, not how often, so the count filter
+     * is lowered by this many to stay safe.
+     *
+     * @param  userInput input to count the q-grams of
+     * @return           number of repeated q-grams in userInput
+     */
+    private static int duplicateGrams(String userInput) {
+        String padded = pad(userInput);
+        HashSet<Integer> grams = new HashSet<Integer>();
+        int duplicates = 0;
+        for (int i = 0; i + Q <= padded.length(); i++) {
+            if (!grams.add(gramKey(padded, i))) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+}
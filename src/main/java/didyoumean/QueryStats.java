@@ -0,0 +1,148 @@
+/**
+ * Counters of the work done for one query: how many nodes the Trie search
+ * visited, how many fields of edit distance matrices were calculated, how 
+ * many candidates were found and scored, how often candidateSelection had 
+ * to raise maxEdit, and how long every stage of the query took. Every thread
+ * has its own QueryStats, so counting only costs a plain addition, without
+ * any locking. Metrics adds them to the process wide histograms when the 
+ * query is done.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+public class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT =
+        ThreadLocal.withInitial(QueryStats::new);
+
+    long nodes;
+    long cells;
+    long candidates;
+    long scored;
+    int escalations;
+    boolean cached;
+    long[] nanos = new long[Metrics.STAGE_NAMES.length];
+
+    /**
+     * Returns the QueryStats of the current thread.
+     *
+     * @return QueryStats of the current thread
+     */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Takes a long cells as input. Add cells to the fields of the QueryStats
+     * of the current thread.
+     *
+     * @param cells number of fields of an edit distance matrix calculated
+     */
+    static void addCells(long cells) {
+        CURRENT.get().cells += cells;
+    }
+
+    /**
+     * Set every counter to zero, to start counting a new query.
+     */
+    void reset() {
+        nodes = 0;
+        cells = 0;
+        candidates = 0;
+        scored = 0;
+        escalations = 0;
+        cached = false;
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = 0;
+        }
+    }
+
+    /**
+     * Takes a QueryStats other as input. Add every counter and time of other
+     * to this QueryStats, for work of the query done on another thread. Of
+     * the escalations the highest is kept, since the work on the other
+     * threads raises the edit distance side by side.
+     *
+     * @param other counters to add
+     */
+    void add(QueryStats other) {
+        nodes += other.nodes;
+        cells += other.cells;
+        candidates += other.candidates;
+        scored += other.scored;
+        escalations = Math.max(escalations, other.escalations);
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] += other.nanos[i];
+        }
+    }
+
+    /**
+     * Returns a copy of this QueryStats, which isn't changed by the thread
+     * this QueryStats belongs to anymore.
+     *
+     * @return copy of the counters
+     */
+    QueryStats copy() {
+        QueryStats copy = new QueryStats();
+        copy.cached = cached;
+        copy.add(this);
+        return copy;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getCells() {
+        return cells;
+    }
+
+    public long getCandidates() {
+        return candidates;
+    }
+
+    public long getScored() {
+        return scored;
+    }
+
+    public int getEscalations() {
+        return escalations;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Takes an int stage as input. Returns the nanoseconds spent in stage.
+     *
+     * @param  stage one of the stages of Metrics
+     * @return       nanoseconds spent in stage
+     */
+    public long getNanos(int stage) {
+        return nanos[stage];
+    }
+
+    /**
+     * Returns the counters as name=value pairs separated by spaces, the 
+     * times in microseconds.
+     *
+     * @return the counters of this query
+     */
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("cached=").append(cached)
+               .append(" nodes=").append(nodes)
+               .append(" cells=").append(cells)
+               .append(" candidates=").append(candidates)
+               .append(" scored=").append(scored)
+               .append(" escalations=").append(escalations);
+        for (int i = 0; i < nanos.length; i++) {
+            builder.append(' ').append(Metrics.STAGE_NAMES[i]).append("Micros=")
+                   .append(nanos[i] / 1000);
+        }
+        return builder.toString();
+    }
+}
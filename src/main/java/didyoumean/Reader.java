@@ -0,0 +1,447 @@
+/**
+ * Reader class where all read in functions are combined
+ * 
+ * @author Joeri Sleegers
+ */ 
+
+package didyoumean;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class Reader {
+    
+    /**
+     * Directory holding the URL's and confusion matrices. Relative to the
+     * directory the program is started from, unless set with the system 
+     * property didyoumean.data.
+     */ 
+    public static final String DATA_PATH = 
+        System.getProperty("didyoumean.data", "data/");
+
+    private static final int ALPHABET_SIZE = 26;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final long MAX_CHUNK_SIZE = 1 << 30;
+    private static final int LINE_SEARCH_SIZE = 256;
+    public static final char WEIGHT_SEPARATOR = '\t';
+    
+    /**
+     * Takes a String fileName as input. Creates an int[][] confusionMatrix from 
+     * fileName, reading it once: the rows are collected first and the matrix
+     * is made at the number of rows read. Returns confusionMatrix.
+     *
+     * @param  fileName filename of file contain confusion matrix 
+     * @return          confusion matrix from fileName as int[][]
+     */ 
+    public int[][] readInConfusionMatrix(String fileName) {
+        ArrayList<int[]> rows = new ArrayList<int[]>();
+        try {
+            BufferedReader br = new BufferedReader(new FileReader(fileName));
+            String line;
+            String[] splittedLine;
+
+            while((line = br.readLine()) != null) {
+                splittedLine = line.trim().split("\\s+");
+                int[] row = new int[ALPHABET_SIZE];
+                for (int i = 0; i < splittedLine.length; i++) {
+                    row[i] = Integer.parseInt(splittedLine[i]);
+                }
+                rows.add(row);
+            }    
+            br.close();
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+        return rows.toArray(new int[rows.size()][]);
+    }
+    
+    /**
+     * Takes a String fileName as input. Read the URL's of fileName sorted 
+     * with readInSortedURLs and build a Trie dictionary of them with 
+     * buildTrie. Return dictionary, empty if fileName can't be read.
+     * 
+     * @param  fileName filename of file containing URL's, maybe weighted
+     * @return          dictionary as Trie of all the URL's in filename         
+     */ 
+    public Trie readInFile(String fileName) {
+        return buildTrie(readInSortedURLs(fileName));
+    }
+
+    /**
+     * Takes a String fileName as input. Read the URL's of fileName like 
+     * readInFile, but throw an IOException if fileName can't be read 
+     * instead of returning an empty Trie, so a dictionary that is loaded 
+     * again can be kept when its list is missing.
+     * 
+     * @param  fileName filename of file containing URL's, maybe weighted
+     * @return          dictionary as Trie of all the URL's in filename
+     */ 
+    public Trie readInFileOrFail(String fileName) throws IOException {
+        return buildTrie(sortURLs(fileName));
+    }
+
+    /**
+     * Takes a String[] urls, sorted, as input. A line may give the weight of
+     * its URL, how often it is visited, after a WEIGHT_SEPARATOR. Split 
+     * those weights off, URL's without one get Trie.DEFAULT_WEIGHT, and 
+     * build a Trie dictionary of them bottom-up. Return dictionary.
+     * 
+     * @param  urls sorted lines of a list of URL's, maybe weighted
+     * @return      dictionary as Trie of all the URL's in urls
+     */ 
+    private Trie buildTrie(String[] urls) {
+        double[] weights = null;
+        for (int i = 0; i < urls.length; i++) {
+            int split = urls[i].indexOf(WEIGHT_SEPARATOR);
+            if (split < 0) {
+                continue;
+            }
+            if (weights == null) {
+                weights = new double[urls.length];
+                Arrays.fill(weights, Trie.DEFAULT_WEIGHT);
+            }
+            weights[i] = parseWeight(urls[i].substring(split + 1));
+            urls[i] = urls[i].substring(0, split).trim();
+        }
+        return Trie.fromSorted(urls, weights);
+    }
+
+    /**
+     * Takes a String fileName as input. Read the URL's of fileName with 
+     * readInUnweightedURLs, a BKTree doesn't keep their weights, and build
+     * a BKTree dictionary of them in bulk. Return dictionary.
+     * 
+     * @param  fileName filename of file containing URL's, maybe weighted
+     * @return          dictionary as BKTree of all the URL's in filename
+     */ 
+    public BKTree readInBKTree(String fileName) {
+        return BKTree.fromWords(readInUnweightedURLs(fileName));
+    }
+
+    /**
+     * Takes a String fileName as input. Read the URL's of fileName with 
+     * readInUnweightedURLs, an OffHeapTrie doesn't keep their weights, and
+     * build an OffHeapTrie dictionary of them. Return dictionary.
+     * 
+     * @param  fileName filename of file containing URL's, maybe weighted
+     * @return          dictionary as OffHeapTrie of all the URL's in filename
+     */ 
+    public OffHeapTrie readInOffHeapTrie(String fileName) {
+        return OffHeapTrie.fromSorted(readInUnweightedURLs(fileName));
+    }
+
+    /**
+     * Takes a String fileName as input. Read the lines of fileName sorted 
+     * with readInSortedURLs and split off the weights, warning that they 
+     * are ignored. The WEIGHT_SEPARATOR sorts before every charachter of a
+     * URL, so the URL's are still sorted. Return them.
+     * 
+     * @param  fileName filename of file containing URL's, maybe weighted
+     * @return          all the URL's in filename, sorted
+     */ 
+    private String[] readInUnweightedURLs(String fileName) {
+        String[] urls = readInSortedURLs(fileName);
+        boolean weighted = false;
+        for (int i = 0; i < urls.length; i++) {
+            int split = urls[i].indexOf(WEIGHT_SEPARATOR);
+            if (split >= 0) {
+                urls[i] = urls[i].substring(0, split).trim();
+                weighted = true;
+            }
+        }
+        if (weighted) {
+            warnIgnoredWeights(fileName);
+        }
+        return urls;
+    }
+
+    /**
+     * Takes a String fileName as input. Print a warning that the weights in
+     * fileName are ignored, so suggestions are ranked without their priors.
+     *
+     * @param fileName filename of file containing weighted URL's
+     */ 
+    private void warnIgnoredWeights(String fileName) {
+        System.err.println("Warning: the weights in " + fileName 
+                           + " are ignored, only the trie engine keeps them");
+    }
+
+    /**
+     * Takes a String fileName as input. Read the BKTree written to fileName
+     * by BKTree.write. Return it, or null if fileName couldn't be read as a
+     * BKTree.
+     *
+     * @param  fileName filename of a file written by BKTree.write
+     * @return          dictionary as BKTree of the tree in fileName
+     */ 
+    public BKTree readInBKTreeSnapshot(String fileName) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                 new FileInputStream(fileName), 1 << 16))) {
+            BKTree dictionary = null;
+            if (in.readInt() != BKTree.MAGIC || in.readInt() != BKTree.VERSION) {
+                System.err.println("Error: " + fileName + " is not a BKTree");
+            } else {
+                int nodeCount = in.readInt();
+                dictionary = new BKTree(nodeCount == 0 ? null : BKTree.readNode(in));
+            }
+            return dictionary;
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+        return null;
+    }
+
+    /**
+     * Takes a String weight as input. Return the number in weight, or 
+     * Trie.DEFAULT_WEIGHT if it isn't a positive number.
+     *
+     * @param  weight text after the WEIGHT_SEPARATOR of a line
+     * @return        weight of the URL of the line
+     */ 
+    private double parseWeight(String weight) {
+        try {
+            double value = Double.parseDouble(weight.trim());
+            if (value > 0) {
+                return value;
+            }
+            System.err.println("Error: weight " + weight + " is not positive");
+        } catch (NumberFormatException e) {
+            System.err.println("Error: " + e);
+        }
+        return Trie.DEFAULT_WEIGHT;
+    }
+
+    /**
+     * Takes a String fileName as input. Read the lines of fileName sorted 
+     * with sortURLs. Return them, or an empty array if fileName can't be 
+     * read.
+     *
+     * @param  fileName filename of file containing URL's
+     * @return          all the lines in fileName, sorted
+     */
+    public String[] readInSortedURLs(String fileName) {
+        try {
+            return sortURLs(fileName);
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+        return new String[0];
+    }
+
+    /**
+     * Takes a String fileName as input. Split fileName into about 
+     * CHUNKS_PER_THREAD chunks per processor, each ending at the end of a 
+     * line, and parse the chunks in parallel in the common ForkJoinPool 
+     * with readInChunk, which normalizes the URL's so their case matches 
+     * the queries. Sort all the URL's in parallel. The weight of a 
+     * weighted line is kept, the WEIGHT_SEPARATOR sorts before every 
+     * charachter of a URL, so the lines are still sorted on their URL. 
+     * Return them. Throw an IOException if fileName can't be read, or if
+     * reading a chunk fails or is interrupted.
+     *
+     * @param  fileName filename of file containing URL's
+     * @return          all the lines in fileName, sorted
+     */
+    private String[] sortURLs(String fileName) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+             FileChannel channel = file.getChannel()) {
+            long[] ends = findChunkEnds(channel);
+
+            ArrayList<Callable<ArrayList<String>>> tasks = 
+                new ArrayList<Callable<ArrayList<String>>>();
+            for (int i = 0; i < ends.length; i++) {
+                long start = i == 0 ? 0 : ends[i-1];
+                long end = ends[i];
+                tasks.add(() -> readInChunk(channel, start, end));
+            }
+            List<Future<ArrayList<String>>> chunks = 
+                ForkJoinPool.commonPool().invokeAll(tasks);
+
+            int count = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                count += chunks.get(i).get().size();
+            }
+            String[] urls = new String[count];
+            count = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                ArrayList<String> chunk = chunks.get(i).get();
+                for (int j = 0; j < chunk.size(); j++) {
+                    urls[count++] = chunk.get(j);
+                }
+            }
+            Arrays.parallelSort(urls);
+            return urls;
+        } catch (ExecutionException e) {
+            throw new IOException("can't read " + fileName, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("reading " + fileName);
+        }
+    }
+
+    /**
+     * Takes a FileChannel channel as input. Divide channel into chunks of
+     * about the same size, at most MAX_CHUNK_SIZE bytes so every chunk can be
+     * mapped on its own. Move the end of every chunk forward to just after 
+     * the next newline, so no line is split. Return the ends of the chunks.
+     *
+     * @param  channel channel of the file to divide
+     * @return         offset after the last byte of every chunk
+     */
+    private long[] findChunkEnds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD;
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, (size + chunks - 1) / chunks);
+        chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+
+        ArrayList<Long> ends = new ArrayList<Long>();
+        ByteBuffer buffer = ByteBuffer.allocate(LINE_SEARCH_SIZE);
+        long end = 0;
+        while (end < size) {
+            end = Math.min(size, end + chunkSize);
+            boolean found = false;
+            while (end < size && !found) {
+                buffer.clear();
+                int read = channel.read(buffer, end);
+                for (int i = 0; i < read && !found; i++) {
+                    found = buffer.get(i) == '\n';
+                    end++;
+                }
+            }
+            ends.add(end);
+        }
+        long[] result = new long[ends.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ends.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Takes a FileChannel channel, a long start and a long end as input. Map
+     * the bytes from start to end into memory and go through them line by 
+     * line. Leave out the whitespace at both ends of a line, the same as 
+     * trim, and skip lines that are blank. Decode the rest of every line as 
+     * a URL with the default charset and normalize it with 
+     * URLParts.normalize, like readInURLs does. Return the URL's in the 
+     * order of the file.
+     *
+     * @param  channel channel of the file to read
+     * @param  start   offset of the first byte of the chunk
+     * @param  end     offset after the last byte of the chunk
+     * @return         URL's in the chunk
+     */
+    private ArrayList<String> readInChunk(FileChannel channel, long start, 
+                                          long end) throws IOException {
+        ArrayList<String> urls = new ArrayList<String>();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 
+                                              start, end - start);
+        byte[] line = new byte[LINE_SEARCH_SIZE];
+        int limit = buffer.limit();
+        int lineStart = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && buffer.get(i) != '\n') {
+                continue;
+            }
+            int first = lineStart;
+            while (first < i && (buffer.get(first) & 0xff) <= ' ') {
+                first++;
+            }
+            int last = i;
+            while (last > first && (buffer.get(last-1) & 0xff) <= ' ') {
+                last--;
+            }
+            if (last > first) {
+                if (last - first > line.length) {
+                    line = new byte[last - first];
+                }
+                buffer.get(first, line, 0, last - first);
+                urls.add(URLParts.normalize(new String(line, 0, last - first,
+                    Charset.defaultCharset())));
+            }
+            lineStart = i + 1;
+        }
+        return urls;
+    }
+
+    /**
+     * Takes a String fileName as input. Add every line of fileName that 
+     * isn't blank to urls, in the order of the file, without its weight if
+     * it has one, warning that the weights are ignored, and normalized with
+     * URLParts.normalize. Return urls.
+     * 
+     * @param  fileName filename of file containing URL's
+     * @return          all the URL's in filename         
+     */ 
+    public ArrayList<String> readInURLs(String fileName) {
+        ArrayList<String> urls = new ArrayList<String>();
+        try (BufferedReader br = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            boolean blankLine;
+            String trimmedLine;
+            boolean weighted = false;
+
+            while((line = br.readLine()) != null) {
+                blankLine = line.equals("");
+                if (blankLine) {
+                    continue;
+                }        
+                int split = line.indexOf(WEIGHT_SEPARATOR);
+                trimmedLine = URLParts.normalize(
+                    split < 0 ? line : line.substring(0, split));
+                urls.add(trimmedLine);
+                weighted |= split >= 0;
+            }
+            if (weighted) {
+                warnIgnoredWeights(fileName);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+        return urls;
+    }
+
+    /**
+     * Takes a String fileName as input. Map the snapshot in fileName into
+     * memory and create a MappedTrie dictionary on it. Nodes are only read
+     * from disk once a search reaches them. Return dictionary, or null if 
+     * fileName couldn't be read as a snapshot.
+     *
+     * @param  fileName filename of a snapshot written by TrieSnapshot
+     * @return          dictionary as MappedTrie of the snapshot in fileName
+     */ 
+    public MappedTrie readInSnapshot(String fileName) {
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+             FileChannel channel = file.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                                  0, channel.size());
+            return new MappedTrie(buffer);
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+        return null;
+    }
+
+    /**
+     * Uses a BuffereadReader and an InputStreamReader to get input from the 
+     * user. Returns this input.
+     *
+     * @return The answer the user inputed to stdin as a string
+     */
+    public String readUserInput() {
+        BufferedReader readUser = new BufferedReader(new InputStreamReader(System.in));
+        String userAnswer =  "";  
+        System.out.println("Enter name of URL: ");
+        try {
+            userAnswer = readUser.readLine();
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+        return userAnswer;
+    }
+}
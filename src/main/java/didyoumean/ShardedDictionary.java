@@ -0,0 +1,364 @@
+/**
+ * A dictionary made of many smaller dictionaries, the shards, each built from
+ * its own list of URL's, e.g. one per agency or top level domain. The shards
+ * are loaded in parallel and searched in parallel on a pool of threads, and
+ * their results are gathered again. Every shard can be reloaded or updated
+ * on its own, without touching the others, and a query can be limited to 
+ * some of the shards.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+public class ShardedDictionary implements URLDictionary {
+
+    private static final String LIST_EXTENSION = ".txt";
+
+    ConcurrentSkipListMap<String, Trie> shards;
+    ExecutorService executor;
+    Reader rd;
+    EditDistanceCalc edCalc;
+
+    /**
+     * Constructor of ShardedDictionary. Takes an int threads as input. 
+     * Create a pool of threads daemon threads to load and search the shards.
+     *
+     * @param threads number of threads to search the shards with
+     */
+    public ShardedDictionary(int threads) {
+        shards = new ConcurrentSkipListMap<String, Trie>();
+        executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "shard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rd = new Reader();
+        edCalc = new EditDistanceCalc();
+    }
+
+    /**
+     * Takes a String directory as input. Load every list of URL's in 
+     * directory as a shard, named after the file without its extension. The
+     * lists are read and built into a Trie in parallel. A shard whose list
+     * can't be read keeps the Trie it had. Shards whose list isn't in 
+     * directory anymore are dropped.
+     *
+     * @param directory path of the directory containing the lists
+     */
+    public void loadDirectory(String directory) {
+        File[] files = new File(directory).listFiles(
+            (dir, name) -> name.endsWith(LIST_EXTENSION));
+        if (files == null) {
+            System.err.println("Error: " + directory + " is not a directory");
+            return;
+        }
+        ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        HashSet<String> names = new HashSet<String>();
+        for (int i = 0; i < files.length; i++) {
+            File file = files[i];
+            String name = file.getName();
+            String shard = name.substring(0, name.length() 
+                                          - LIST_EXTENSION.length());
+            names.add(shard);
+            tasks.add(Executors.callable(() -> {
+                try {
+                    load(shard, file.getPath());
+                } catch (IOException e) {
+                    System.err.println("Error: " + e);
+                }
+            }));
+        }
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        shards.keySet().retainAll(names);
+    }
+
+    /**
+     * Takes a String shard and a String fileName as input. Build a Trie from
+     * the URL's in fileName and make it the shard named shard, replacing the
+     * shard that had that name. Throw an IOException if fileName can't be 
+     * read, the shard is left as it was then.
+     *
+     * @param shard    name of the shard
+     * @param fileName filename of file containing URL's
+     */
+    public void load(String shard, String fileName) throws IOException {
+        shards.put(shard, rd.readInFileOrFail(fileName));
+    }
+
+    /**
+     * Takes a String shard and a String directory as input. Load the shard 
+     * named shard again from its list in directory. Throw an 
+     * IllegalArgumentException if shard contains a path separator, so no 
+     * list outside directory can be read, if there is no shard named shard,
+     * or if its list can't be read, the loaded shard is kept then.
+     *
+     * @param shard     name of the shard
+     * @param directory path of the directory containing the lists
+     */
+    public void reload(String shard, String directory) {
+        if (shard.indexOf('/') >= 0 || shard.indexOf('\\') >= 0 
+            || shard.contains(File.separator)) {
+            throw new IllegalArgumentException("invalid shard name " + shard);
+        }
+        if (!shards.containsKey(shard)) {
+            throw new IllegalArgumentException("no shard " + shard);
+        }
+        try {
+            load(shard, directory + File.separator + shard + LIST_EXTENSION);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("can't read the list of shard "
+                + shard + ", it is kept as it was: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Takes a String shard, a Collection<String> removed and a 
+     * Collection<String> added as input. Replace the shard named shard by an
+     * updated copy, like Trie.update. Throw an IllegalArgumentException if 
+     * there is no such shard.
+     *
+     * @param shard   name of the shard
+     * @param removed words to remove
+     * @param added   words to insert
+     */
+    public synchronized void update(String shard, Collection<String> removed,
+                                    Collection<String> added) {
+        Trie trie = shards.get(shard);
+        if (trie == null) {
+            throw new IllegalArgumentException("no shard " + shard);
+        }
+        shards.put(shard, trie.update(removed, added));
+    }
+
+    /**
+     * Returns the names of the shards, sorted.
+     *
+     * @return names of the shards
+     */
+    public Set<String> getNames() {
+        return shards.keySet();
+    }
+
+    /**
+     * Takes a Collection<String> names and a Function<Trie, T> query as 
+     * input. Run query on every shard in names, or on every shard if names
+     * is null, each on a thread of the pool. Names that aren't a shard are
+     * skipped. The counters in the QueryStats of the threads are added to 
+     * those of the current thread. Return the results in the order of the 
+     * names of the shards.
+     *
+     * @param  names names of the shards to query, null for all
+     * @param  query query to run on a shard
+     * @return       result of query for every shard
+     */
+    public <T> ArrayList<T> scatter(Collection<String> names, 
+                                    Function<Trie, T> query) {
+        ArrayList<Trie> selected = new ArrayList<Trie>();
+        if (names == null) {
+            selected.addAll(shards.values());
+        } else {
+            for (String name : new TreeSet<String>(names)) {
+                Trie trie = shards.get(name);
+                if (trie != null) {
+                    selected.add(trie);
+                }
+            }
+        }
+
+        ArrayList<Future<ShardResult<T>>> futures = 
+            new ArrayList<Future<ShardResult<T>>>();
+        for (int i = 0; i < selected.size(); i++) {
+            Trie trie = selected.get(i);
+            futures.add(executor.submit(() -> {
+                QueryStats stats = QueryStats.current();
+                stats.reset();
+                T result = query.apply(trie);
+                return new ShardResult<T>(result, stats.copy());
+            }));
+        }
+
+        ArrayList<T> results = new ArrayList<T>();
+        QueryStats stats = QueryStats.current();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                ShardResult<T> shardResult = futures.get(i).get();
+                results.add(shardResult.result);
+                stats.add(shardResult.stats);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Takes a String word as input. Return true if any shard contains word.
+     * The shards are checked one after the other, since a lookup is much
+     * cheaper than handing it to another thread.
+     *
+     * @param  word word to be checked if a shard contains it
+     * @return      true if a shard contains word, false if none does
+     */
+    public boolean contains(String word) {
+        for (Trie trie : shards.values()) {
+            if (trie.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a String word and a Collection<String> names as input. Return 
+     * true if any shard in names contains word, or any shard at all if names
+     * is null.
+     *
+     * @param  word  word to be checked if a shard contains it
+     * @param  names names of the shards to check, null for all
+     * @return       true if a shard contains word, false if none does
+     */
+    public boolean contains(String word, Collection<String> names) {
+        if (names == null) {
+            return contains(word);
+        }
+        for (String name : names) {
+            Trie trie = shards.get(name);
+            if (trie != null && trie.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a String word as input. Return the highest weight word has in 
+     * any shard, 0 if no shard contains it.
+     *
+     * @param  word word to get the weight of
+     * @return      weight of word
+     */
+    public double getWeight(String word) {
+        double weight = 0;
+        for (Trie trie : shards.values()) {
+            weight = Math.max(weight, trie.getWeight(word));
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the highest weight of any word in any shard.
+     *
+     * @return highest weight in the shards
+     */
+    public double getMaxWeight() {
+        double weight = 0;
+        for (Trie trie : shards.values()) {
+            weight = Math.max(weight, trie.getMaxWeight());
+        }
+        return weight;
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Search every 
+     * shard in parallel and return the words within maxEdit of userInput 
+     * from all of them, every word once.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all words in the shards within maxEdit of userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        ArrayList<ArrayList<String>> results = scatter(null, 
+            trie -> trie.getOptions(userInput, maxEdit));
+        LinkedHashSet<String> options = new LinkedHashSet<String>();
+        for (int i = 0; i < results.size(); i++) {
+            options.addAll(results.get(i));
+        }
+        return new ArrayList<String>(options);
+    }
+
+    /**
+     * Takes a String userInput, an int minEdit and an int maxEdit as input.
+     * Find the nearest options of every shard in parallel. Return the 
+     * options of the shards that stopped at the lowest edit distance, 
+     * every word once, empty if no shard has a word within maxEdit.
+     *
+     * @param  userInput input to find the options for
+     * @param  minEdit   edit distance to start with
+     * @param  maxEdit   highest edit distance to try
+     * @return           the nearest words in the shards, empty if none is 
+     *                   within maxEdit
+     */
+    public ArrayList<String> getNearestOptions(String userInput, int minEdit,
+                                               int maxEdit) {
+        ArrayList<ArrayList<String>> results = scatter(null, 
+            trie -> trie.getNearestOptions(userInput, minEdit, maxEdit));
+        int nearest = maxEdit + 1;
+        int[] stopped = new int[results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            stopped[i] = getStoppedAt(userInput, results.get(i), minEdit, 
+                                      maxEdit);
+            nearest = Math.min(nearest, stopped[i]);
+        }
+
+        LinkedHashSet<String> options = new LinkedHashSet<String>();
+        for (int i = 0; i < results.size(); i++) {
+            if (stopped[i] == nearest) {
+                options.addAll(results.get(i));
+            }
+        }
+        return new ArrayList<String>(options);
+    }
+
+    /**
+     * Takes a String userInput, an ArrayList<String> options, an int minEdit
+     * and an int maxEdit as input. Options are the nearest options of a 
+     * dictionary, which are all within the edit distance its search stopped
+     * at. That is minEdit, or, if it had to raise it, the distance of every
+     * option, since there was nothing closer. Return the edit distance the 
+     * search stopped at, or maxEdit+1 if options is empty. Only the options
+     * of the dictionaries that stopped at the lowest distance are the 
+     * nearest of all.
+     *
+     * @param  userInput input the options were found for
+     * @param  options   nearest options of a dictionary
+     * @param  minEdit   edit distance the search started with
+     * @param  maxEdit   highest edit distance the search tried
+     * @return           edit distance the search stopped at
+     */
+    public int getStoppedAt(String userInput, ArrayList<String> options, 
+                            int minEdit, int maxEdit) {
+        if (options.isEmpty()) {
+            return maxEdit + 1;
+        }
+        int distance = edCalc.editDistance(userInput, options.get(0), maxEdit);
+        return Math.max(minEdit, distance);
+    }
+
+    /**
+     * The result of a query on one shard, with the counters of the thread 
+     * that ran it.
+     */
+    private static class ShardResult<T> {
+
+        T result;
+        QueryStats stats;
+
+        ShardResult(T result, QueryStats stats) {
+            this.result = result;
+            this.stats = stats;
+        }
+    }
+}
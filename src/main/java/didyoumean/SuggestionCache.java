@@ -0,0 +1,335 @@
+/**
+ * Bounded cache of Suggestions, keyed by the URL they are for. Which URL's
+ * are kept is decided the way TinyLFU does: the frequency of every URL that
+ * is looked up is estimated with a count-min sketch, and when the cache is
+ * full a new URL only replaces the least recently used one if it is looked
+ * up more often. So a burst of URL's that are only seen once can't push out
+ * the typo's that keep coming back. The sketch is halved every time it has
+ * counted ten times the size of the cache, so old popularity fades.
+ *
+ * The cache is split into segments by the hash of the URL, every segment
+ * has its own entries and sketch and its own lock, so lookups of different
+ * URL's from many threads rarely wait for each other. The URL's are 
+ * normalized with URLParts.normalize, so the same URL typed with other case
+ * in its host or with whitespace around it is the same key.
+ *
+ * Every result is cached, also correct URL's and URL's without options. When
+ * the dictionary changes the cache has to be invalidated. Results that were
+ * found with the dictionary from before that are not put in the cache.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+public class SuggestionCache {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    Segment[] segments;
+    volatile long generation;
+    AtomicLong hits;
+    AtomicLong misses;
+    AtomicLong evictions;
+
+    /**
+     * Constructor of SuggestionCache. Takes an int maximumSize as input.
+     * Divide maximumSize over a power of two segments, at most MAX_SEGMENTS
+     * and with at least MIN_SEGMENT_SIZE Suggestions each if maximumSize is
+     * big enough, so a small cache isn't cut into pieces that each evict 
+     * too early.
+     *
+     * @param maximumSize maximum number of Suggestions to keep
+     */
+    public SuggestionCache(int maximumSize) {
+        int count = Math.min(MAX_SEGMENTS, 
+                             Math.max(1, maximumSize / MIN_SEGMENT_SIZE));
+        count = Integer.highestOneBit(count);
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maximumSize / count 
+                                      + (i < maximumSize % count ? 1 : 0));
+        }
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        evictions = new AtomicLong();
+    }
+
+    /**
+     * Takes a String url as input. Normalize url and count it in the sketch
+     * of its segment. Return the cached Suggestions for url, or null if 
+     * there are none.
+     *
+     * @param  url URL to get the Suggestions of
+     * @return     cached Suggestions for url, null if there are none
+     */
+    public Suggestions get(String url) {
+        url = URLParts.normalize(url);
+        Suggestions suggestions = segmentOf(url).get(url);
+        if (suggestions == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return suggestions;
+    }
+
+    /**
+     * Returns the generation of the cache, which changes every time the
+     * cache is invalidated. It has to be read before the Suggestions to put
+     * are searched.
+     *
+     * @return current generation of the cache
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Takes a String url, a Suggestions suggestions and a long generation as
+     * input. Normalize url and put suggestions in its segment, which checks
+     * generation under its lock, so it can't miss an invalidation. If a 
+     * URL is evicted for it, count the eviction.
+     *
+     * @param url         URL suggestions are for
+     * @param suggestions Suggestions to cache
+     * @param generation  generation read before suggestions were searched
+     */
+    public void put(String url, Suggestions suggestions, long generation) {
+        url = URLParts.normalize(url);
+        if (segmentOf(url).put(url, suggestions, generation)) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Start a new generation, so Suggestions that are still being searched
+     * with the old dictionary won't be put, and then remove all Suggestions
+     * from every segment. A put that already passed the check of the 
+     * generation in a segment is removed with it.
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            generation++;
+        }
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found cached Suggestions.
+     *
+     * @return number of lookups that found cached Suggestions
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups that found no cached Suggestions.
+     *
+     * @return number of lookups that found no cached Suggestions
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of Suggestions evicted to make place for others.
+     *
+     * @return number of Suggestions evicted to make place for others
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the number of cached Suggestions, the sum of the sizes of the
+     * segments.
+     *
+     * @return number of cached Suggestions
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size and counters of the cache as text.
+     *
+     * @return size, hits, misses and evictions of the cache
+     */
+    public String toString() {
+        return "cache size=" + size() + " hits=" + getHits()
+            + " misses=" + getMisses() + " evictions=" + getEvictions();
+    }
+
+    /**
+     * Takes a String url as input. Return the segment of url, chosen by the
+     * high bits of its hash code, the sketches use the low bits.
+     *
+     * @param  url normalized URL to get the segment of
+     * @return     segment holding url
+     */
+    private Segment segmentOf(String url) {
+        int hash = url.hashCode() * 0x9E3779B9;
+        return segments[(hash >>> 16) & (segments.length - 1)];
+    }
+
+    /**
+     * One segment of the cache: the entries in least recently used order 
+     * and the sketch of their frequencies, guarded by the lock of the 
+     * segment.
+     */
+    private class Segment {
+
+        LinkedHashMap<String, Suggestions> entries;
+        int maximumSize;
+        int[][] sketch;
+        int sketchMask;
+        int additions;
+
+        /**
+         * Constructor of Segment. Takes an int maximumSize as input.
+         * Initializes the entries in least recently used order, and a 
+         * sketch with a width of the power of two above maximumSize.
+         *
+         * @param maximumSize maximum number of Suggestions in the segment
+         */
+        Segment(int maximumSize) {
+            this.maximumSize = maximumSize;
+            entries = new LinkedHashMap<String, Suggestions>(16, 0.75f, true);
+            int width = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+            sketch = new int[SKETCH_DEPTH][width];
+            sketchMask = width - 1;
+        }
+
+        /**
+         * Takes a String url as input. Count url in the sketch. Return the
+         * cached Suggestions for url, or null if there are none.
+         *
+         * @param  url URL to get the Suggestions of
+         * @return     cached Suggestions for url, null if there are none
+         */
+        synchronized Suggestions get(String url) {
+            increment(url);
+            return entries.get(url);
+        }
+
+        /**
+         * Takes a String url, a Suggestions suggestions and a long 
+         * generation as input. If the cache was invalidated since 
+         * generation, suggestions may be from an old dictionary, so don't
+         * keep them. If the segment is full, only keep suggestions if url is
+         * estimated to be looked up more often than the least recently used
+         * URL, which is then evicted. Return true if a URL was evicted.
+         *
+         * @param  url         URL suggestions are for
+         * @param  suggestions Suggestions to cache
+         * @param  generation  generation read before suggestions were 
+         *                     searched
+         * @return             true if a URL was evicted for url
+         */
+        synchronized boolean put(String url, Suggestions suggestions,
+                                 long generation) {
+            if (generation != SuggestionCache.this.generation 
+                || maximumSize == 0) {
+                return false;
+            }
+            if (entries.containsKey(url) || entries.size() < maximumSize) {
+                entries.put(url, suggestions);
+                return false;
+            }
+            String victim = entries.keySet().iterator().next();
+            if (frequency(url) <= frequency(victim)) {
+                return false;
+            }
+            entries.remove(victim);
+            entries.put(url, suggestions);
+            return true;
+        }
+
+        /**
+         * Remove all Suggestions of the segment.
+         */
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        /**
+         * Returns the number of Suggestions in the segment.
+         *
+         * @return number of Suggestions in the segment
+         */
+        synchronized int size() {
+            return entries.size();
+        }
+
+        /**
+         * Takes a String url as input. Add one to the counter of url in every
+         * row of the sketch, up to MAX_COUNT. If the sketch has counted ten
+         * times maximumSize, halve all counters.
+         *
+         * @param url URL to count
+         */
+        private void increment(String url) {
+            for (int i = 0; i < SKETCH_DEPTH; i++) {
+                int index = indexOf(url, i);
+                if (sketch[i][index] < MAX_COUNT) {
+                    sketch[i][index]++;
+                }
+            }
+            additions++;
+            if (additions >= 10 * Math.max(maximumSize, 1)) {
+                for (int i = 0; i < SKETCH_DEPTH; i++) {
+                    for (int j = 0; j < sketch[i].length; j++) {
+                        sketch[i][j] >>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        /**
+         * Takes a String url as input. Return the estimated number of times
+         * url was looked up, the lowest counter of url in the sketch.
+         *
+         * @param  url URL to estimate the frequency of
+         * @return     estimated frequency of url
+         */
+        private int frequency(String url) {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SKETCH_DEPTH; i++) {
+                frequency = Math.min(frequency, sketch[i][indexOf(url, i)]);
+            }
+            return frequency;
+        }
+
+        /**
+         * Takes a String url and an int row as input. Return the index of 
+         * url in row of the sketch, by mixing the hash code of url with a
+         * different seed for every row.
+         *
+         * @param  url URL to get the index of
+         * @param  row row of the sketch
+         * @return     index of url in row
+         */
+        private int indexOf(String url, int row) {
+            int hash = url.hashCode() * (0x9E3779B9 + 2 * row);
+            hash ^= hash >>> 16;
+            hash *= 0x85EBCA6B;
+            hash ^= hash >>> 13;
+            return hash & sketchMask;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ * Serves suggestions of a DidYouMean over HTTP on the local machine, so the
+ * dictionary and confusion matrices only have to be loaded once for any
+ * number of lookups. Every request is handled on its own virtual thread when
+ * the JVM supports them, otherwise on a cached thread pool. All requests
+ * share the same DidYouMean, which is only read while serving.
+ *
+ * A request is GET /suggest?url=<url>. The response is plain text: the first
+ * line is "correct", "incorrect" or "not found", followed by one suggestion
+ * per line, the X-Query-Stats header holds the counters of the query. A 
+ * request to /reload loads the dictionary again and /metrics returns the 
+ * histograms of Metrics. A POST to /update changes the dictionary while it 
+ * is serving: every line of the body is a URL to add, or to remove if it 
+ * starts with a '-', and all lines are applied at once. If the dictionary 
+ * is sharded, /suggest takes a comma separated list of shards to search as
+ * shards parameter, and /reload and /update the shard to change as shard 
+ * parameter. GET /complete?prefix=<prefix> returns the best URL's starting
+ * with prefix for typeahead, one per line, the k parameter sets how many and
+ * the typos parameter how many edits prefix may be off.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import com.sun.net.httpserver.*;
+import java.io.*;
+import java.lang.reflect.*;
+import java.net.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class SuggestionServer {
+
+    private static final int DEFAULT_COMPLETIONS = 5;
+
+    DidYouMean didYouMean;
+
+    /**
+     * Constructor of SuggestionServer. Takes a DidYouMean didYouMean that
+     * is already set up as input.
+     *
+     * @param didYouMean DidYouMean to serve the suggestions of
+     */
+    public SuggestionServer(DidYouMean didYouMean) {
+        this.didYouMean = didYouMean;
+    }
+
+    /**
+     * Takes an int port as input. Start an HTTP server on the loopback
+     * address on port which handles /suggest with handleSuggest.
+     *
+     * @param port port to listen on
+     */
+    public void start(int port) {
+        try {
+            InetSocketAddress address = new InetSocketAddress(
+                InetAddress.getLoopbackAddress(), port);
+            HttpServer server = HttpServer.create(address, 0);
+            server.createContext("/suggest", this::handleSuggest);
+            server.createContext("/reload", this::handleReload);
+            server.createContext("/metrics", this::handleMetrics);
+            server.createContext("/update", this::handleUpdate);
+            server.createContext("/complete", this::handleComplete);
+            server.setExecutor(newRequestExecutor());
+            server.start();
+            System.out.println("Serving suggestions on " + address);
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+    }
+
+    /**
+     * Takes an HttpExchange exchange as input. Read the url parameter from
+     * the query of the request and find the suggestions for it, in the shards
+     * of the shards parameter if it is there. Respond with
+     * the suggestions and the QueryStats of the query, or with status 400 if
+     * there is no url parameter.
+     *
+     * @param exchange request to handle
+     */
+    private void handleSuggest(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String url = getParameter(query, "url");
+        String shards = getParameter(query, "shards");
+        int status = 200;
+        StringBuilder response = new StringBuilder();
+        if (url == null) {
+            status = 400;
+            response.append("missing url parameter\n");
+        } else {
+            Suggestions suggestions = didYouMean.suggest(url, shards == null 
+                ? null : Arrays.asList(shards.split(",")));
+            if (suggestions.isCorrect()) {
+                response.append("correct\n");
+            } else if (suggestions.isNotFound()) {
+                response.append("not found\n");
+            } else {
+                response.append("incorrect\n");
+            }
+            ArrayList<String> options = suggestions.getOptions();
+            for (int i = 0; i < options.size(); i++) {
+                response.append(options.get(i)).append('\n');
+            }
+            exchange.getResponseHeaders().set("X-Query-Stats", 
+                                              QueryStats.current().toString());
+        }
+
+        respond(exchange, status, response.toString());
+    }
+
+    /**
+     * Takes an HttpExchange exchange as input. Read the prefix, k and typos
+     * parameters from the query of the request, k defaults to 
+     * DEFAULT_COMPLETIONS and typos to 0. Respond with the completions of 
+     * prefix, one per line, or with status 400 if there is no prefix 
+     * parameter or the dictionary can't complete.
+     *
+     * @param exchange request to handle
+     */
+    private void handleComplete(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String prefix = getParameter(query, "prefix");
+        String k = getParameter(query, "k");
+        String typos = getParameter(query, "typos");
+        if (prefix == null) {
+            respond(exchange, 400, "missing prefix parameter\n");
+            return;
+        }
+        StringBuilder response = new StringBuilder();
+        try {
+            ArrayList<String> completions = didYouMean.complete(prefix,
+                k == null ? DEFAULT_COMPLETIONS : Integer.parseInt(k),
+                typos == null ? 0 : Integer.parseInt(typos));
+            for (int i = 0; i < completions.size(); i++) {
+                response.append(completions.get(i)).append('\n');
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, e.getMessage() + "\n");
+            return;
+        }
+        exchange.getResponseHeaders().set("X-Query-Stats",
+                                          QueryStats.current().toString());
+        respond(exchange, 200, response.toString());
+    }
+
+    /**
+     * Takes an HttpExchange exchange as input. Load the dictionary of 
+     * didYouMean again, which also invalidates its cache. If there is a 
+     * shard parameter, only load that shard again. Respond with status 400 
+     * if that isn't possible, and with status 405 if the request isn't a 
+     * POST, so a crawler or a prefetch can't reload by accident.
+     *
+     * @param exchange request to handle
+     */
+    private void handleReload(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            respond(exchange, 405, "use POST\n");
+            return;
+        }
+        String shard = getParameter(exchange.getRequestURI().getRawQuery(),
+                                    "shard");
+        try {
+            if (shard == null) {
+                didYouMean.reload();
+            } else {
+                didYouMean.reload(shard);
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, e.getMessage() + "\n");
+            return;
+        }
+        respond(exchange, 200, "reloaded\n");
+    }
+
+    /**
+     * Takes an HttpExchange exchange as input. Read the body of the request
+     * line by line. A line starting with '-' is a URL to remove, any other 
+     * line that isn't empty a URL to add. Update the dictionary of 
+     * didYouMean with all of them in one batch, or only the shard of the 
+     * shard parameter if it is there. Respond with the number of URL's added
+     * and removed, or with status 400 if the update isn't possible.
+     *
+     * @param exchange request to handle
+     */
+    private void handleUpdate(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            respond(exchange, 405, "use POST\n");
+            return;
+        }
+        ArrayList<String> removed = new ArrayList<String>();
+        ArrayList<String> added = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+            exchange.getRequestBody(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith("-")) {
+                removed.add(line.substring(1).trim());
+            } else if (!line.isEmpty()) {
+                added.add(line);
+            }
+        }
+        String shard = getParameter(exchange.getRequestURI().getRawQuery(),
+                                    "shard");
+        try {
+            if (shard == null) {
+                didYouMean.update(removed, added);
+            } else {
+                didYouMean.update(shard, removed, added);
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, e.getMessage() + "\n");
+            return;
+        }
+        respond(exchange, 200, "updated added=" + added.size() + " removed="
+                + removed.size() + "\n");
+    }
+
+    /**
+     * Takes an HttpExchange exchange as input. Respond with the text dump of
+     * Metrics.
+     *
+     * @param exchange request to handle
+     */
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, Metrics.get().dump());
+    }
+
+    /**
+     * Takes an HttpExchange exchange, an int status and a String response as
+     * input. Send response as plain text with status.
+     *
+     * @param exchange request to respond to
+     * @param status   HTTP status of the response
+     * @param response text of the response
+     */
+    private void respond(HttpExchange exchange, int status, String response)
+        throws IOException {
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type",
+                                          "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    /**
+     * Takes a String query and a String name as input. Return the decoded
+     * value of the parameter name in query, or null if it isn't there.
+     *
+     * @param  query raw query of a request
+     * @param  name  name of the parameter
+     * @return       value of the parameter, null if it isn't in query
+     */
+    private String getParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        String[] parameters = query.split("&");
+        for (int i = 0; i < parameters.length; i++) {
+            int split = parameters[i].indexOf('=');
+            if (split > 0 && parameters[i].substring(0, split).equals(name)) {
+                return URLDecoder.decode(parameters[i].substring(split + 1),
+                                         StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an executor that starts a new virtual thread for every task.
+     * Virtual threads only exist since Java 21, so on older JVM's fall back
+     * to a cached thread pool.
+     *
+     * @return executor to handle the requests with
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod(
+                "newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * The answer of DidYouMean to one URL: whether the URL is correct, and if
+ * not, the most likely URL's that were meant. If no URL's were found, options
+ * is empty.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class Suggestions {
+
+    String url;
+    boolean correct;
+    ArrayList<String> options;
+
+    /**
+     * Constructor of Suggestions. Takes a String url, a boolean correct and
+     * an ArrayList<String> options as input.
+     *
+     * @param url     URL the suggestions are for
+     * @param correct true if the dictionary contains url
+     * @param options most likely URL's that were meant, most likely first
+     */
+    public Suggestions(String url, boolean correct, ArrayList<String> options) {
+        this.url = url;
+        this.correct = correct;
+        this.options = options;
+    }
+
+    /**
+     * Returns the URL the suggestions are for.
+     *
+     * @return URL the suggestions are for
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns true if the dictionary contains the URL.
+     *
+     * @return true if the URL is correct
+     */
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    /**
+     * Returns true if the URL is incorrect and no options were found.
+     *
+     * @return true if nothing was found for the URL
+     */
+    public boolean isNotFound() {
+        return !correct && options.isEmpty();
+    }
+
+    /**
+     * Returns the options, most likely first.
+     *
+     * @return most likely URL's that were meant
+     */
+    public ArrayList<String> getOptions() {
+        return options;
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Implementation of a symmetric delete index (SymSpell). For every URL all
+ * the strings that can be made by deleting up to maxDeletes charachters are
+ * stored, together with the URL's they came from. Two strings within an edit
+ * distance of d have a common string they can both reach with at most d
+ * deletions, so the options for an input are found by looking up the
+ * deletions of the input and verifying the URL's found with EditDistanceCalc.
+ * A higher maxDeletes costs more memory, but answers more edit distances
+ * from the index.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class SymSpellIndex implements URLDictionary {
+
+    String[] words;
+    HashMap<String, int[]> deletes;
+    int maxDeletes;
+    EditDistanceCalc edCalc;
+
+    /**
+     * Constructor of SymSpellIndex. Takes an ArrayList<String> urls and an
+     * int maxDeletes as input. Give every distinct URL an id. Add the id of
+     * every URL to the postings of all its deletions. The postings are int
+     * arrays with their size in the first field, which are trimmed after all
+     * URL's are added.
+     *
+     * @param urls       URL's to put in the index
+     * @param maxDeletes maximum number of deletions stored per URL
+     */
+    public SymSpellIndex(ArrayList<String> urls, int maxDeletes) {
+        this.maxDeletes = maxDeletes;
+        edCalc = new EditDistanceCalc();
+        words = new LinkedHashSet<String>(urls).toArray(new String[0]);
+        deletes = new HashMap<String, int[]>();
+
+        for (int id = 0; id < words.length; id++) {
+            HashSet<String> variants = new HashSet<String>();
+            addDeletes(words[id], maxDeletes, variants);
+            for (String variant : variants) {
+                addPosting(variant, id);
+            }
+        }
+        for (Map.Entry<String, int[]> entry : deletes.entrySet()) {
+            int[] postings = entry.getValue();
+            entry.setValue(Arrays.copyOfRange(postings, 0, postings[0] + 1));
+        }
+    }
+
+    /**
+     * Takes a String word as input. Look up the postings of word, since word
+     * is its own deletion of zero charachters. Return true if one of them is
+     * word.
+     *
+     * @param  word word to be checked if the index contains it
+     * @return      true if the index contains word, false if it doesn't
+     */
+    public boolean contains(String word) {
+        int[] postings = deletes.get(word);
+        if (postings == null) {
+            return false;
+        }
+        for (int i = 1; i <= postings[0]; i++) {
+            if (words[postings[i]].equals(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. If maxEdit
+     * exceeds maxDeletes the index can't find every option, so every URL is
+     * verified instead. Else create all deletions of userInput of up to
+     * maxEdit charachters, look up their postings and verify every URL that
+     * wasn't verified yet with the bit-parallel editDistance. Return result.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all URL's in the index within maxEdit of userInput
+     */
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        ArrayList<String> result = new ArrayList<String>();
+        long[] masks = edCalc.calcPatternMasks(userInput);
+        if (maxEdit > maxDeletes) {
+            for (int id = 0; id < words.length; id++) {
+                verify(userInput, masks, id, maxEdit, result);
+            }
+            return result;
+        }
+
+        HashSet<String> variants = new HashSet<String>();
+        addDeletes(userInput, maxEdit, variants);
+        BitSet verified = new BitSet(words.length);
+        for (String variant : variants) {
+            int[] postings = deletes.get(variant);
+            if (postings == null) {
+                continue;
+            }
+            for (int i = 1; i <= postings[0]; i++) {
+                int id = postings[i];
+                if (!verified.get(id)) {
+                    verified.set(id);
+                    verify(userInput, masks, id, maxEdit, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Takes a String userInput, a long[] masks of userInput, an int id, an
+     * int maxEdit and an ArrayList<String> result as input. Add the URL with
+     * id to result if it is within maxEdit of userInput.
+     *
+     * @param userInput input to find the options for
+     * @param masks     masks of userInput from calcPatternMasks
+     * @param id        id of the URL to verify
+     * @param maxEdit   maximum edit distance between userInput and an option
+     * @param result    options found so far
+     */
+    private void verify(String userInput, long[] masks, int id, int maxEdit,
+                        ArrayList<String> result) {
+        if (edCalc.editDistance(userInput, masks, words[id], maxEdit) <= maxEdit) {
+            result.add(words[id]);
+        }
+    }
+
+    /**
+     * Takes a String word, an int depth and a HashSet<String> variants as
+     * input. Add word to variants. If word wasn't in variants yet and depth
+     * is above zero, add every deletion of one charachter of word with one
+     * less depth.
+     *
+     * @param word     word to create the deletions of
+     * @param depth    number of charachters that may still be deleted
+     * @param variants deletions created so far
+     */
+    private void addDeletes(String word, int depth, HashSet<String> variants) {
+        if (!variants.add(word) || depth == 0) {
+            return;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            addDeletes(word.substring(0, i) + word.substring(i+1), depth-1,
+                       variants);
+        }
+    }
+
+    /**
+     * Takes a String variant and an int id as input. Add id to the postings
+     * of variant, doubling the postings if they are full.
+     *
+     * @param variant deletion of a URL
+     * @param id      id of the URL
+     */
+    private void addPosting(String variant, int id) {
+        int[] postings = deletes.get(variant);
+        if (postings == null) {
+            postings = new int[2];
+            deletes.put(variant, postings);
+        } else if (postings[0] + 1 == postings.length) {
+            postings = Arrays.copyOf(postings, postings.length * 2);
+            deletes.put(variant, postings);
+        }
+        postings[0]++;
+        postings[postings[0]] = id;
+    }
+}
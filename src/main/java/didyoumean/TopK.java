@@ -0,0 +1,177 @@
+/**
+ * Keeps the k options with the highest scores out of all options offered to
+ * it. The options are kept in a min-heap on their score, so the lowest score
+ * that is still kept can be checked in constant time and every offer costs at
+ * most log(k).
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class TopK {
+
+    String[] options;
+    double[] scores;
+    int size;
+
+    /**
+     * Constructor of TopK. Takes an int k as input. Initializes the heap for
+     * k options.
+     *
+     * @param k number of options to keep
+     */
+    public TopK(int k) {
+        options = new String[k];
+        scores = new double[k];
+    }
+
+    /**
+     * Takes a double score as input. Return true if an option with score 
+     * would be kept, so if the heap isn't full yet or score is higher than 
+     * the lowest score in the heap.
+     *
+     * @param  score score of an option
+     * @return       true if an option with score would be kept
+     */
+    public boolean accepts(double score) {
+        return size < options.length || (size > 0 && score > scores[0]);
+    }
+
+    /**
+     * Takes a String option and a double score as input. If option wouldn't
+     * be kept, return false. If the heap is full replace the option with the
+     * lowest score, else add option at the end. Restore the heap. Return true.
+     *
+     * @param  option option to offer
+     * @param  score  score of option
+     * @return        true if option is kept, false if not
+     */
+    public boolean offer(String option, double score) {
+        if (!accepts(score)) {
+            return false;
+        }
+        if (size < options.length) {
+            options[size] = option;
+            scores[size] = score;
+            siftUp(size);
+            size++;
+        } else {
+            options[0] = option;
+            scores[0] = score;
+            siftDown(0, size);
+        }
+        return true;
+    }
+
+    /**
+     * Takes a TopK other as input. Offer every option of other that isn't 
+     * kept already, so the k best of both are kept. Return this TopK.
+     *
+     * @param  other options to merge in
+     * @return       this TopK
+     */
+    public TopK merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            if (!contains(other.options[i])) {
+                offer(other.options[i], other.scores[i]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Takes a String option as input. Return true if option is kept.
+     *
+     * @param  option option to look for
+     * @return        true if option is kept, false if not
+     */
+    public boolean contains(String option) {
+        for (int i = 0; i < size; i++) {
+            if (options[i].equals(option)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of options kept.
+     *
+     * @return number of options kept
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the lowest score kept, or negative infinity if the heap isn't 
+     * full yet, so every score is higher.
+     *
+     * @return lowest score an option has to beat to be kept
+     */
+    public double getThreshold() {
+        if (size < options.length) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return scores[0];
+    }
+
+    /**
+     * Returns the options kept, sorted from the highest to the lowest score.
+     * The heap is left as it is.
+     *
+     * @return options sorted on score, highest first
+     */
+    public ArrayList<String> getOptions() {
+        TopK copy = new TopK(options.length);
+        System.arraycopy(options, 0, copy.options, 0, size);
+        System.arraycopy(scores, 0, copy.scores, 0, size);
+        copy.size = size;
+
+        String[] sorted = new String[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = copy.options[0];
+            copy.size--;
+            copy.swap(0, copy.size);
+            copy.siftDown(0, copy.size);
+        }
+        return new ArrayList<String>(Arrays.asList(sorted));
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int end) {
+        while (2 * index + 1 < end) {
+            int child = 2 * index + 1;
+            if (child + 1 < end && scores[child+1] < scores[child]) {
+                child++;
+            }
+            if (scores[index] <= scores[child]) {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String option = options[i];
+        options[i] = options[j];
+        options[j] = option;
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+}
@@ -0,0 +1,1043 @@
+/**
+ * Implementation of a Trie datastructure with an addition of a method which
+ * is able to get all the values in the trie which don't exceed a given edit
+ * distance. Every node also keeps the COMPLETIONS best words of its subtree,
+ * on their weight, so a prefix can be completed while it is typed.
+ * 
+ * @author Joeri Sleegers
+ */ 
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class Trie implements URLDictionary {
+    
+    private static final int PARALLEL_THRESHOLD = 1024;
+    public static final int COMPLETIONS = 8;
+    public static final double DEFAULT_WEIGHT = 1;
+    private static final TrieAccess<TrieNode> NODE_ACCESS = 
+        new TrieAccess<TrieNode>() {
+            public int getChildCount(TrieNode node) {
+                return node.getChildren().length;
+            }
+
+            public char getLetter(TrieNode node, int index) {
+                return node.getChildren()[index].getValue();
+            }
+
+            public TrieNode getChildAt(TrieNode node, int index) {
+                return node.getChildren()[index];
+            }
+
+            public boolean isWord(TrieNode node) {
+                return node.isWord();
+            }
+        };
+
+    TrieNode topNode;
+    
+    public Trie() {
+        topNode = new TrieNode();
+    }
+    
+    /**
+     * Takes a TrieNode topNode as input. Create a Trie with topNode as its
+     * top.
+     *
+     * @param topNode top of the Trie
+     */ 
+    private Trie(TrieNode topNode) {
+        this.topNode = topNode;
+    }
+    
+    /**
+     * Takes a String[] words, sorted, as input. Build a Trie of words in one
+     * pass, bottom-up, instead of inserting them one by one. The nodes of 
+     * the current word are kept in path. For every next word, the nodes 
+     * below the prefix it shares with the word before it are finished: all
+     * their children have been seen, since the words are sorted, so their 
+     * arrays are created once at the exact size and their size is the sum 
+     * of their children and their completions are merged from those of 
+     * their children. Then nodes are created for the rest of the word, 
+     * which is kept in ends at its length. Every word gets DEFAULT_WEIGHT.
+     * Duplicate words are skipped. Return the Trie.
+     *
+     * @param  words words to build the Trie of, sorted
+     * @return       Trie containing every word of words
+     */ 
+    public static Trie fromSorted(String[] words) {
+        return fromSorted(words, null);
+    }
+    
+    /**
+     * Takes a String[] words, sorted, and a double[] weights of words as 
+     * input. Build a Trie of words like fromSorted, where every word gets 
+     * its weight, or DEFAULT_WEIGHT if weights is null. A word that is in 
+     * words more than once keeps its highest weight. Return the Trie.
+     *
+     * @param  words   words to build the Trie of, sorted
+     * @param  weights weight of every word, null for DEFAULT_WEIGHT
+     * @return         Trie containing every word of words
+     */ 
+    public static Trie fromSorted(String[] words, double[] weights) {
+        int maxLength = 0;
+        for (int i = 0; i < words.length; i++) {
+            maxLength = Math.max(maxLength, words[i].length());
+        }
+        TrieNode[] path = new TrieNode[maxLength+1];
+        ArrayList<ArrayList<TrieNode>> pending =
+            new ArrayList<ArrayList<TrieNode>>(maxLength+1);
+        String[] ends = new String[maxLength+1];
+        for (int i = 0; i <= maxLength; i++) {
+            pending.add(new ArrayList<TrieNode>());
+        }
+        path[0] = new TrieNode();
+
+        String previous = "";
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            double weight = weights == null ? DEFAULT_WEIGHT : weights[i];
+            if (i > 0 && word.equals(previous)) {
+                TrieNode node = path[word.length()];
+                node.setWeight(Math.max(node.getWeight(), weight));
+                continue;
+            }
+            int prefix = 0;
+            int shortest = Math.min(previous.length(), word.length());
+            while (prefix < shortest 
+                   && previous.charAt(prefix) == word.charAt(prefix)) {
+                prefix++;
+            }
+            for (int depth = previous.length(); depth > prefix; depth--) {
+                finishNode(path[depth], pending.get(depth), ends[depth]);
+                ends[depth] = null;
+            }
+            for (int depth = prefix + 1; depth <= word.length(); depth++) {
+                path[depth] = new TrieNode(word.charAt(depth-1));
+                pending.get(depth-1).add(path[depth]);
+            }
+            path[word.length()].setWord();
+            path[word.length()].setWeight(weight);
+            ends[word.length()] = word;
+            previous = word;
+        }
+        for (int depth = previous.length(); depth >= 0; depth--) {
+            finishNode(path[depth], pending.get(depth), ends[depth]);
+        }
+        return new Trie(path[0]);
+    }
+    
+    /**
+     * Takes a TrieNode node, an ArrayList<TrieNode> children of node, which
+     * are finished already, and a String word as input. Set the children of
+     * node, its size and its completions, then clear children for the next
+     * node at the same depth.
+     *
+     * @param node     node to finish
+     * @param children children of node, sorted on their value
+     * @param word     word ending at node, null if none does
+     */ 
+    private static void finishNode(TrieNode node, ArrayList<TrieNode> children,
+                                   String word) {
+        int size = node.isWord() ? 1 : 0;
+        for (int i = 0; i < children.size(); i++) {
+            size += children.get(i).getSize();
+        }
+        node.setChildren(children.toArray(new TrieNode[children.size()]));
+        node.size = size;
+        updateCompletions(node, word);
+        children.clear();
+    }
+    
+    /**
+     * Takes a TrieNode node and a String word as input. Word is the word 
+     * ending at node, or null if none does. Merge word and the completions 
+     * of the children of node, which are sorted already, into the 
+     * COMPLETIONS best, and make them the completions of node. A node that 
+     * isn't a word and has one child shares the arrays of that child, which
+     * is most of the nodes of a Trie of URL's.
+     *
+     * @param node node to update the completions of
+     * @param word word ending at node, null if none does
+     */ 
+    private static void updateCompletions(TrieNode node, String word) {
+        TrieNode[] children = node.getChildren();
+        if (word == null && children.length == 1) {
+            node.setCompletions(children[0].getCompletions(),
+                                children[0].getCompletionWeights());
+            return;
+        }
+        String[] completions = new String[COMPLETIONS];
+        double[] weights = new double[COMPLETIONS];
+        int[] next = new int[children.length];
+        int size = 0;
+        while (size < COMPLETIONS) {
+            String best = word;
+            double bestWeight = node.getWeight();
+            int from = -1;
+            for (int i = 0; i < children.length; i++) {
+                String[] candidates = children[i].getCompletions();
+                if (next[i] == candidates.length) {
+                    continue;
+                }
+                double weight = children[i].getCompletionWeights()[next[i]];
+                if (best == null || compareCompletions(candidates[next[i]], 
+                        weight, best, bestWeight) < 0) {
+                    best = candidates[next[i]];
+                    bestWeight = weight;
+                    from = i;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            if (from < 0) {
+                word = null;
+            } else {
+                next[from]++;
+            }
+            completions[size] = best;
+            weights[size] = bestWeight;
+            size++;
+        }
+        node.setCompletions(Arrays.copyOf(completions, size),
+                            Arrays.copyOf(weights, size));
+    }
+    
+    /**
+     * Takes a String word, its double weight, a String other and its double
+     * otherWeight as input. Return a negative number if word is a better 
+     * completion than other, a positive number if it is worse and 0 if they
+     * are equal. The word with the highest weight is the best, then the 
+     * shortest, then the first in alphabetical order.
+     *
+     * @param  word        completion to compare
+     * @param  weight      weight of word
+     * @param  other       completion to compare word to
+     * @param  otherWeight weight of other
+     * @return             order of word and other as completions
+     */ 
+    private static int compareCompletions(String word, double weight, 
+                                          String other, double otherWeight) {
+        if (weight != otherWeight) {
+            return weight > otherWeight ? -1 : 1;
+        }
+        if (word.length() != other.length()) {
+            return word.length() - other.length();
+        }
+        return word.compareTo(other);
+    }
+    
+    /**
+     * Takes a String word as input. Insert word in the Trie with 
+     * DEFAULT_WEIGHT.
+     *
+     * @param word word to be inserted in the Trie
+     */ 
+    public void put(String word) {
+        put(word, DEFAULT_WEIGHT, null);
+    }
+    
+    /**
+     * Takes a String word and a double weight as input. Insert word in the
+     * Trie with weight, which orders it among the completions.
+     *
+     * @param word   word to be inserted in the Trie
+     * @param weight weight of word
+     */ 
+    public void put(String word, double weight) {
+        put(word, weight, null);
+    }
+    
+    /**
+     * Takes a String word, a double weight and a Set<TrieNode> copied as 
+     * input. If the Trie already contains word, stop. Initialize 
+     * nodeIterator with topNode and add one to its size. Iterate through 
+     * word letter by letter. Look up the child of nodeIterator with the 
+     * current letter. If there is none add a new TrieNode to the children of
+     * nodeIterator, otherwise take it over with ownChild. Set nodeIterator 
+     * to that child and add one to its size. Set the boolean word of the 
+     * node of the last letter to true and its weight to weight. Offer word 
+     * to the completions of every node on its path.
+     *
+     * @param word   word to be inserted in the Trie
+     * @param weight weight of word
+     * @param copied nodes this Trie may change, null if it may change all
+     */ 
+    private void put(String word, double weight, Set<TrieNode> copied) {
+        if (contains(word)) {
+            return;
+        }
+        TrieNode[] path = new TrieNode[word.length()+1];
+        TrieNode nodeIterator = topNode;
+        nodeIterator.size++;
+        path[0] = nodeIterator;
+
+        for (int i = 0; i < word.length(); i++) {
+            char letter = word.charAt(i);
+            TrieNode child = nodeIterator.getChild(letter);
+            if (child == null) {
+                child = nodeIterator.add(letter);
+                if (copied != null) {
+                    copied.add(child);
+                }
+            } else {
+                child = ownChild(nodeIterator, child, copied);
+            }
+            nodeIterator = child;
+            nodeIterator.size++;
+            path[i+1] = nodeIterator;
+        }
+        nodeIterator.setWord();
+        nodeIterator.setWeight(weight);
+        for (int i = 0; i < path.length; i++) {
+            offerCompletion(path[i], word, weight);
+        }
+    }
+    
+    /**
+     * Takes a TrieNode node, a String word and a double weight as input. If
+     * word is one of the COMPLETIONS best words below node, insert it in 
+     * the completions of node at its place, dropping the last one if there 
+     * are too many. New arrays are created, since the old ones may be 
+     * shared.
+     *
+     * @param node   node on the path of word
+     * @param word   word that was inserted
+     * @param weight weight of word
+     */ 
+    private static void offerCompletion(TrieNode node, String word, 
+                                        double weight) {
+        String[] completions = node.getCompletions();
+        double[] weights = node.getCompletionWeights();
+        int index = completions.length;
+        while (index > 0 && compareCompletions(word, weight, 
+                   completions[index-1], weights[index-1]) < 0) {
+            index--;
+        }
+        if (index == COMPLETIONS) {
+            return;
+        }
+        int size = Math.min(completions.length + 1, COMPLETIONS);
+        String[] newCompletions = new String[size];
+        double[] newWeights = new double[size];
+        System.arraycopy(completions, 0, newCompletions, 0, index);
+        System.arraycopy(weights, 0, newWeights, 0, index);
+        System.arraycopy(completions, index, newCompletions, index+1, 
+                         size-index-1);
+        System.arraycopy(weights, index, newWeights, index+1, size-index-1);
+        newCompletions[index] = word;
+        newWeights[index] = weight;
+        node.setCompletions(newCompletions, newWeights);
+    }
+    
+    /**
+     * Takes a String word as input. Remove word from the Trie. Return true
+     * if the Trie contained word.
+     *
+     * @param  word word to be removed from the Trie
+     * @return      true if the Trie contained word, false if it didn't
+     */ 
+    public boolean remove(String word) {
+        return remove(word, null);
+    }
+    
+    /**
+     * Takes a String word and a Set<TrieNode> copied as input. If the Trie
+     * doesn't contain word, return false. Take over every node on the path 
+     * of word with ownChild and subtract one from its size. Set the boolean
+     * word of the node of the last letter to false. Going back up from it, 
+     * remove every node that has no words below it anymore from its parent,
+     * and merge the completions again of every node that had word among 
+     * them. Return true.
+     *
+     * @param  word   word to be removed from the Trie
+     * @param  copied nodes this Trie may change, null if it may change all
+     * @return        true if the Trie contained word, false if it didn't
+     */ 
+    private boolean remove(String word, Set<TrieNode> copied) {
+        if (!contains(word)) {
+            return false;
+        }
+        TrieNode[] path = new TrieNode[word.length()+1];
+        path[0] = topNode;
+        topNode.size--;
+        for (int i = 0; i < word.length(); i++) {
+            path[i+1] = ownChild(path[i], path[i].getChild(word.charAt(i)),
+                                 copied);
+            path[i+1].size--;
+        }
+        path[word.length()].unsetWord();
+
+        int i = word.length();
+        for (; i > 0 && path[i].getSize() == 0; i--) {
+            path[i-1].remove(word.charAt(i-1));
+        }
+        for (; i >= 0; i--) {
+            if (Arrays.asList(path[i].getCompletions()).contains(word)) {
+                updateCompletions(path[i], path[i].isWord() 
+                                  ? word.substring(0, i) : null);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Takes a Collection<String> removed and a Collection<String> added as 
+     * input. Return a new Trie without the words of removed and with the 
+     * words of added, so a word in both ends up in it. This Trie isn't 
+     * changed: only the nodes on the paths of the changed words are copied,
+     * the rest is shared with this Trie. Searches of this Trie that are 
+     * still running are not disturbed, and a search of the new Trie sees
+     * all the changes at once.
+     *
+     * @param  removed words to remove
+     * @param  added   words to insert
+     * @return         new Trie with the changes
+     */ 
+    public Trie update(Collection<String> removed, Collection<String> added) {
+        Set<TrieNode> copied = Collections.newSetFromMap(
+            new IdentityHashMap<TrieNode, Boolean>());
+        Trie next = new Trie(new TrieNode(topNode));
+        copied.add(next.topNode);
+        for (String word : removed) {
+            next.remove(word, copied);
+        }
+        for (String word : added) {
+            next.put(word, DEFAULT_WEIGHT, copied);
+        }
+        return next;
+    }
+    
+    /**
+     * Takes a TrieNode parent, a TrieNode child of parent and a 
+     * Set<TrieNode> copied as input. If copied is null, or contains child, 
+     * child may be changed, so return it. Otherwise child is shared with 
+     * another Trie, so replace it in parent by a copy, add the copy to 
+     * copied and return the copy.
+     *
+     * @param  parent node this Trie may change
+     * @param  child  child of parent
+     * @param  copied nodes this Trie may change, null if it may change all
+     * @return        child, or the copy that replaced it
+     */ 
+    private TrieNode ownChild(TrieNode parent, TrieNode child, 
+                              Set<TrieNode> copied) {
+        if (copied == null || copied.contains(child)) {
+            return child;
+        }
+        TrieNode copy = new TrieNode(child);
+        parent.setChild(copy);
+        copied.add(copy);
+        return copy;
+    }
+    
+    /**
+     * Takes a String word as input. Initialize nodeIterator with topNode. 
+     * Iterate through word letter by letter. Look up the child of 
+     * nodeIterator with the current letter, If there is none return false.
+     * If the TrieNode of the last letter is a word return true,  If not 
+     * return false.
+     *
+     * @param  word word to be checked if Trie contains it
+     * @return      true if Trie contains word, false if Trie doesn't
+     */ 
+    public boolean contains(String word) {
+        TrieNode nodeIterator = topNode;
+
+        for (int i = 0; i < word.length(); i++) {
+            nodeIterator = nodeIterator.getChild(word.charAt(i));
+            if (nodeIterator == null) {
+                return false;
+            }
+        }
+        return nodeIterator.isWord();
+    }
+
+    /**
+     * Takes a String word as input. Return the weight of word, the prior of
+     * it being meant, or 0 if the Trie doesn't contain it.
+     *
+     * @param  word word to get the weight of
+     * @return      weight of word, 0 if the Trie doesn't contain it
+     */
+    public double getWeight(String word) {
+        TrieNode nodeIterator = topNode;
+        for (int i = 0; i < word.length() && nodeIterator != null; i++) {
+            nodeIterator = nodeIterator.getChild(word.charAt(i));
+        }
+        if (nodeIterator == null || !nodeIterator.isWord()) {
+            return 0;
+        }
+        return nodeIterator.getWeight();
+    }
+
+    /**
+     * Returns the highest weight of any word in the Trie.
+     *
+     * @return highest weight in the Trie
+     */
+    public double getMaxWeight() {
+        return topNode.getMaxWeight();
+    }
+
+    /**
+     * Takes a String prefix and an int k as input. Walk down the Trie along
+     * prefix. If there is no such path, return an empty list. The node at
+     * the end holds the best completions of prefix already, so if k doesn't
+     * exceed them, or there are no more words below it, return the first k.
+     * Else collect every word below the node and return the k best. The
+     * nodes walked are counted in the QueryStats of the current thread.
+     * Throw an IllegalArgumentException if k is negative.
+     *
+     * @param  prefix start of the words to complete
+     * @param  k      number of completions to return
+     * @return        the k best words starting with prefix, best first
+     */
+    public ArrayList<String> complete(String prefix, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException(
+                "negative number of completions " + k);
+        }
+        ArrayList<String> result = new ArrayList<String>();
+        TrieNode nodeIterator = topNode;
+        for (int i = 0; i < prefix.length() && nodeIterator != null; i++) {
+            nodeIterator = nodeIterator.getChild(prefix.charAt(i));
+        }
+        QueryStats.current().nodes += prefix.length();
+        if (nodeIterator == null) {
+            return result;
+        }
+        String[] completions = nodeIterator.getCompletions();
+        if (k <= completions.length || nodeIterator.getSize() == completions.length) {
+            for (int i = 0; i < k && i < completions.length; i++) {
+                result.add(completions[i]);
+            }
+            return result;
+        }
+        HashMap<String, Double> weights = new HashMap<String, Double>();
+        collectWords(nodeIterator, new StringBuilder(prefix), weights);
+        result.addAll(weights.keySet());
+        result.sort((word, other) -> compareCompletions(word, weights.get(word),
+                                                        other, weights.get(other)));
+        result.subList(Math.min(k, result.size()), result.size()).clear();
+        return result;
+    }
+
+    /**
+     * Takes a TrieNode node, a StringBuilder sequence holding the letters
+     * from topNode to node and a HashMap<String, Double> weights as input.
+     * Put every word below node, node included, in weights with its weight.
+     *
+     * @param node     node whose words to collect
+     * @param sequence letters from topNode to node
+     * @param weights  words found so far with their weight
+     */
+    private void collectWords(TrieNode node, StringBuilder sequence,
+                              HashMap<String, Double> weights) {
+        if (node.isWord()) {
+            weights.put(sequence.toString(), node.getWeight());
+        }
+        TrieNode[] children = node.getChildren();
+        for (int i = 0; i < children.length; i++) {
+            sequence.append(children[i].getValue());
+            collectWords(children[i], sequence, weights);
+            sequence.setLength(sequence.length()-1);
+        }
+    }
+
+    /**
+     * Takes a String prefix, an int k and an int maxEdit as input. Complete
+     * prefix like complete, but also when it has typo's: search the Trie
+     * with the rows of EditDistanceCalc.calcNextRow against prefix, like
+     * getOptions, and take the completions of every node whose sequence is
+     * within maxEdit of prefix. A completion keeps the lowest edit distance
+     * it was found with. Return the k best completions, on their edit
+     * distance first and then like complete. Only the completions kept in
+     * the nodes are used, so at most COMPLETIONS per node. The visited
+     * nodes are counted like getOptions does. Throw an 
+     * IllegalArgumentException if k or maxEdit is negative.
+     *
+     * @param  prefix  start of the words to complete, maybe with typo's
+     * @param  k       number of completions to return
+     * @param  maxEdit maximum edit distance between prefix and the start of
+     *                 a completion
+     * @return         the k best completions of prefix, best first
+     */
+    public ArrayList<String> completeFuzzy(String prefix, int k, int maxEdit) {
+        if (k < 0) {
+            throw new IllegalArgumentException(
+                "negative number of completions " + k);
+        }
+        if (maxEdit < 0) {
+            throw new IllegalArgumentException(
+                "negative edit distance " + maxEdit);
+        }
+        if (maxEdit == 0) {
+            return complete(prefix, k);
+        }
+        HashMap<String, Integer> distances = new HashMap<String, Integer>();
+        HashMap<String, Double> weights = new HashMap<String, Double>();
+        int[] firstRow = new int[prefix.length()+1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        if (prefix.length() <= maxEdit) {
+            addCompletions(topNode, prefix.length(), distances, weights);
+        }
+
+        int visited = 0;
+        TrieNode[] children = topNode.getChildren();
+        for (int i = 0; i < children.length; i++) {
+            visited += searchPrefixNode(children[i], ' ', prefix, maxEdit, null,
+                                        firstRow, distances, weights);
+        }
+        countVisited(visited, prefix);
+
+        ArrayList<String> result = new ArrayList<String>(distances.keySet());
+        result.sort((word, other) -> {
+            int order = distances.get(word) - distances.get(other);
+            if (order != 0) {
+                return order;
+            }
+            return compareCompletions(word, weights.get(word), other,
+                                      weights.get(other));
+        });
+        result.subList(Math.min(k, result.size()), result.size()).clear();
+        return result;
+    }
+
+    /**
+     * Takes a TrieNode node, a char previousLetter, a String prefix, an int
+     * maxEdit, an int[] previousRow, an int[] row, a HashMap<String, Integer>
+     * distances and a HashMap<String, Double> weights as input. Calculate
+     * the row of node like searchNode, and stop if its lowest value exceeds
+     * maxEdit. If the sequence of node is within maxEdit of prefix, add its
+     * completions with addCompletions. Search all children of node. Return
+     * the number of nodes visited, node included.
+     *
+     * @param node           node to search
+     * @param previousLetter letter of the parent of node
+     * @param prefix         start of the words to complete
+     * @param maxEdit        maximum edit distance to prefix
+     * @param previousRow    row of the grandparent of node, null at the top
+     * @param row            row of the parent of node
+     * @param distances      completions found so far with their distance
+     * @param weights        completions found so far with their weight
+     * @return               number of nodes visited
+     */
+    private int searchPrefixNode(TrieNode node, char previousLetter,
+                                 String prefix, int maxEdit, int[] previousRow,
+                                 int[] row, HashMap<String, Integer> distances,
+                                 HashMap<String, Double> weights) {
+        char letter = node.getValue();
+        int[] nextRow = new int[row.length];
+        int min = EditDistanceCalc.calcNextRow(prefix, letter, previousLetter,
+                                               previousRow, row, nextRow);
+        if (min > maxEdit) {
+            return 1;
+        }
+        int distance = nextRow[nextRow.length-1];
+        if (distance <= maxEdit) {
+            addCompletions(node, distance, distances, weights);
+        }
+
+        int visited = 1;
+        TrieNode[] children = node.getChildren();
+        for (int i = 0; i < children.length; i++) {
+            visited += searchPrefixNode(children[i], letter, prefix, maxEdit,
+                                        row, nextRow, distances, weights);
+        }
+        return visited;
+    }
+
+    /**
+     * Takes a TrieNode node, an int distance, a HashMap<String, Integer>
+     * distances and a HashMap<String, Double> weights as input. Add the
+     * completions of node to distances with distance, unless they are in it
+     * with a lower distance already, and to weights with their weight.
+     *
+     * @param node      node whose completions to add
+     * @param distance  edit distance between prefix and the sequence of node
+     * @param distances completions found so far with their distance
+     * @param weights   completions found so far with their weight
+     */
+    private static void addCompletions(TrieNode node, int distance,
+                                       HashMap<String, Integer> distances,
+                                       HashMap<String, Double> weights) {
+        String[] completions = node.getCompletions();
+        double[] completionWeights = node.getCompletionWeights();
+        for (int i = 0; i < completions.length; i++) {
+            distances.merge(completions[i], distance, Math::min);
+            weights.put(completions[i], completionWeights[i]);
+        }
+    }
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Create the first
+     * row of the edit distance matrix, the distances between the empty
+     * sequence and every prefix of userInput. Search every child of topNode
+     * with that row. Count the visited nodes and the fields of their rows in
+     * the QueryStats of the current thread. Return result.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all words in the Trie within maxEdit of userInput
+     */ 
+    public ArrayList<String> getOptions(String userInput, int maxEdit) {
+        ArrayList<String> result = new ArrayList<String>();
+        StringBuilder sequence = new StringBuilder();
+        int[] firstRow = new int[userInput.length()+1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+
+        int visited = 0;
+        TrieNode[] children = topNode.getChildren();
+        for (int i = 0; i < children.length; i++) {
+            visited += searchNode(children[i], ' ', userInput, maxEdit, null,
+                                  firstRow, sequence, result);
+        }
+        countVisited(visited, userInput);
+        return result;
+    }
+    
+    /**
+     * Takes a String userInput, an int minEdit and an int maxEdit as input.
+     * Finds the same options as getNearestOptions of URLDictionary, but 
+     * every node is visited at most once: FrontierSearch keeps the nodes 
+     * and words that are too far for the current edit distance, and resumes
+     * from them when it has to be raised. Return the options, empty if 
+     * there is no word within maxEdit.
+     *
+     * @param  userInput input to find the options for
+     * @param  minEdit   edit distance to start with
+     * @param  maxEdit   highest edit distance to try
+     * @return           the nearest words in the Trie, empty if none is 
+     *                   within maxEdit
+     */ 
+    public ArrayList<String> getNearestOptions(String userInput, int minEdit,
+                                               int maxEdit) {
+        return FrontierSearch.getNearestOptions(NODE_ACCESS, topNode, 
+                                                userInput, minEdit, maxEdit);
+    }
+    
+    /**
+     * Takes a String userInput, an int maxEdit and a ForkJoinPool pool as 
+     * input. Finds the same options as getOptions, but the subtrees of the
+     * Trie are searched as separate tasks in pool. Subtrees with less than 
+     * PARALLEL_THRESHOLD words are searched sequentially within one task. 
+     * Every task returns its own options, which are merged by the task that
+     * forked it, and so do the numbers of nodes they visited. Return result.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @param  pool      pool to run the tasks in
+     * @return           all words in the Trie within maxEdit of userInput
+     */ 
+    public ArrayList<String> getOptions(String userInput, int maxEdit,
+                                        ForkJoinPool pool) {
+        int[] firstRow = new int[userInput.length()+1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        SearchTask task = new SearchTask(topNode, "", userInput, maxEdit, null,
+                                         firstRow);
+        ArrayList<String> result = pool.invoke(task);
+        countVisited(task.visited, userInput);
+        return result;
+    }
+
+    /**
+     * Takes an int visited and a String userInput as input. Add visited to 
+     * the nodes of the QueryStats of the current thread, and the fields of
+     * their rows to its cells.
+     *
+     * @param visited   number of nodes a search visited
+     * @param userInput input the rows were calculated against
+     */
+    private static void countVisited(int visited, String userInput) {
+        QueryStats stats = QueryStats.current();
+        stats.nodes += visited;
+        stats.cells += (long) visited * userInput.length();
+    }
+    
+    /**
+     * Takes a TrieNode node, a char previousLetter, a String userInput, an
+     * int maxEdit, an int[] previousRow, an int[] row, a StringBuilder
+     * sequence and an ArrayList<String> result as input. Calculate the row of
+     * node from the row of its parent, so every node only costs one row
+     * instead of a full matrix. If the lowest value in that row exceeds 
+     * maxEdit no sequence below node can be an option, so stop. Append the 
+     * value of node to sequence, which holds the letters from topNode to 
+     * node. If node is a word within maxEdit of userInput add sequence to 
+     * result. Search all children of node. Remove the value of node from 
+     * sequence again. Return the number of nodes visited, node included.
+     *
+     * @param node           node to search
+     * @param previousLetter letter of the parent of node
+     * @param userInput      input to find the options for
+     * @param maxEdit        maximum edit distance between userInput and an option
+     * @param previousRow    row of the grandparent of node, null at the top
+     * @param row            row of the parent of node
+     * @param sequence       letters from topNode to the parent of node
+     * @param result         options found so far
+     * @return               number of nodes visited
+     */ 
+    private int searchNode(TrieNode node, char previousLetter, String userInput,
+                            int maxEdit, int[] previousRow, int[] row,
+                            StringBuilder sequence, ArrayList<String> result) {
+        char letter = node.getValue();
+        int[] nextRow = new int[row.length];
+        int min = EditDistanceCalc.calcNextRow(userInput, letter, previousLetter,
+                                               previousRow, row, nextRow);
+        if (min > maxEdit) {
+            return 1;
+        }
+        sequence.append(letter);
+        if (node.isWord() && nextRow[nextRow.length-1] <= maxEdit) {
+            result.add(sequence.toString());
+        }
+
+        int visited = 1;
+        TrieNode[] children = node.getChildren();
+        for (int i = 0; i < children.length; i++) {
+            visited += searchNode(children[i], letter, userInput, maxEdit, row,
+                                  nextRow, sequence, result);
+        }
+        sequence.setLength(sequence.length()-1);
+        return visited;
+    }
+    
+    /**
+     * Takes a String userInput, an int k and a ProbabillityCalc probCalc as 
+     * input. Search the Trie like getOptions, but weigh every edit by the 
+     * negative logarithm of its probabillity from the confusion matrices of
+     * probCalc, so the rows hold the cost of the most probable way userInput
+     * was typed for a sequence. Every word is scored by the logarithm of its
+     * weight, its prior, plus the log probabillity of typing userInput when
+     * it was meant, and the k best are kept. They start out as the words 
+     * with the highest weights, the completions of topNode. A subtree is 
+     * skipped as soon as the lowest cost in its row together with the 
+     * highest weight below it can't beat the k-th best word anymore, so 
+     * with skewed weights most of the Trie is never visited. Return the k 
+     * most probable words, most probable first. The visited nodes are 
+     * counted like getOptions does.
+     *
+     * @param  userInput input to find the options for
+     * @param  k         number of options to return
+     * @param  probCalc  calculator holding the costs of the edits
+     * @return           the k most probable words given userInput
+     */ 
+    public ArrayList<String> getWeightedOptions(String userInput, int k,
+                                                ProbabillityCalc probCalc) {
+        return getWeightedTopK(userInput, k, probCalc).getOptions();
+    }
+    
+    /**
+     * Takes a String userInput, an int k and a ProbabillityCalc probCalc as 
+     * input. Finds the same options as getWeightedOptions, but returns them
+     * with their scores, so they can be merged with the options of other
+     * Tries.
+     *
+     * @param  userInput input to find the options for
+     * @param  k         number of options to return
+     * @param  probCalc  calculator holding the costs of the edits
+     * @return           the k most probable words given userInput
+     */ 
+    public TopK getWeightedTopK(String userInput, int k, 
+                                ProbabillityCalc probCalc) {
+        TopK best = new TopK(k);
+        StringBuilder sequence = new StringBuilder();
+        double[] firstRow = probCalc.calcFirstCostRow(userInput);
+
+        int visited = 0;
+        String[] seeds = topNode.getCompletions();
+        double[] seedWeights = topNode.getCompletionWeights();
+        for (int i = 0; i < seeds.length; i++) {
+            double cost = calcWordCost(seeds[i], userInput, probCalc, firstRow);
+            best.offer(seeds[i], Math.log(seedWeights[i]) - cost);
+            visited += seeds[i].length();
+        }
+        TrieNode[] children = topNode.getChildren();
+        for (int i = 0; i < children.length; i++) {
+            visited += searchWeightedNode(children[i], ' ', userInput, probCalc,
+                                          null, firstRow, 0, sequence, best);
+        }
+        countVisited(visited, userInput);
+        return best;
+    }
+
+    /**
+     * Takes a String word, a String userInput, a ProbabillityCalc probCalc 
+     * and the double[] firstRow of userInput as input. Calculate the cost
+     * rows along word, the same ones searchWeightedNode calculates along 
+     * its path. Return the cost of typing userInput when word was meant.
+     *
+     * @param  word      word to calculate the cost of
+     * @param  userInput input to find the options for
+     * @param  probCalc  calculator holding the costs of the edits
+     * @param  firstRow  cost row of the empty sequence
+     * @return           cost of word given userInput
+     */
+    private static double calcWordCost(String word, String userInput,
+                                       ProbabillityCalc probCalc,
+                                       double[] firstRow) {
+        double[] previousRow = null;
+        double[] row = firstRow;
+        char previousLetter = ' ';
+        for (int i = 0; i < word.length(); i++) {
+            double[] nextRow = new double[row.length];
+            probCalc.calcNextCostRow(userInput, word.charAt(i), previousLetter,
+                                     previousRow, row, nextRow);
+            previousRow = row;
+            row = nextRow;
+            previousLetter = word.charAt(i);
+        }
+        return row[row.length-1];
+    }
+    
+    /**
+     * Takes a TrieNode node, a char previousLetter, a String userInput, a
+     * ProbabillityCalc probCalc, a double[] previousRow, a double[] row, a
+     * double rowMin, a StringBuilder sequence and a TopK best as input. 
+     * Calculate the cost row of node from the row of its parent. Every 
+     * field of a row below node comes from a field of the row above it 
+     * plus a cost, or from the row two above it plus a transposition, so 
+     * no word below node costs less than the lowest cost in the row of 
+     * node, or than rowMin, the lowest cost in row, plus the cheapest 
+     * transposition. If even that lower bound, with the highest weight
+     * below node, wouldn't be kept by best, no word below node can be, so 
+     * stop. If node is a word offer it to best with its weight, unless best
+     * has it already from the start. Search all children of node. Return 
+     * the number of nodes visited, node included.
+     *
+     * @param node           node to search
+     * @param previousLetter letter of the parent of node
+     * @param userInput      input to find the options for
+     * @param probCalc       calculator holding the costs of the edits
+     * @param previousRow    row of the grandparent of node, null at the top
+     * @param row            row of the parent of node
+     * @param rowMin         lowest cost in row
+     * @param sequence       letters from topNode to the parent of node
+     * @param best           most probable words found so far
+     * @return               number of nodes visited
+     */ 
+    private int searchWeightedNode(TrieNode node, char previousLetter,
+                                    String userInput, ProbabillityCalc probCalc,
+                                    double[] previousRow, double[] row,
+                                    double rowMin, StringBuilder sequence, 
+                                    TopK best) {
+        char letter = node.getValue();
+        double[] nextRow = new double[row.length];
+        double min = probCalc.calcNextCostRow(userInput, letter, previousLetter,
+                                              previousRow, row, nextRow);
+        double bound = Math.min(min, rowMin + probCalc.getMinTransCost());
+        if (!best.accepts(Math.log(node.getMaxWeight()) - bound)) {
+            return 1;
+        }
+        sequence.append(letter);
+        double score = Math.log(node.getWeight()) - nextRow[nextRow.length-1];
+        if (node.isWord() && best.accepts(score)) {
+            String word = sequence.toString();
+            if (!best.contains(word)) {
+                best.offer(word, score);
+            }
+        }
+
+        int visited = 1;
+        TrieNode[] children = node.getChildren();
+        for (int i = 0; i < children.length; i++) {
+            visited += searchWeightedNode(children[i], letter, userInput, 
+                                          probCalc, row, nextRow, min, sequence,
+                                          best);
+        }
+        sequence.setLength(sequence.length()-1);
+        return visited;
+    }
+    
+    /**
+     * Task searching the subtree of one TrieNode for getOptions with a 
+     * ForkJoinPool.
+     */ 
+    private class SearchTask extends RecursiveTask<ArrayList<String>> {
+
+        private static final long serialVersionUID = 1L;
+
+        TrieNode node;
+        String sequence;
+        String userInput;
+        int maxEdit;
+        int[] previousRow;
+        int[] row;
+        int visited;
+
+        /**
+         * Constructor of SearchTask. Takes a TrieNode node, a String 
+         * sequence, a String userInput, an int maxEdit, an int[] previousRow
+         * and an int[] row as input. The row of node itself is already in 
+         * row and the row of its parent in previousRow. Sequence holds the 
+         * letters from topNode to node.
+         */ 
+        SearchTask(TrieNode node, String sequence, String userInput, 
+                   int maxEdit, int[] previousRow, int[] row) {
+            this.node = node;
+            this.sequence = sequence;
+            this.userInput = userInput;
+            this.maxEdit = maxEdit;
+            this.previousRow = previousRow;
+            this.row = row;
+        }
+
+        /**
+         * If the subtree of node is small, search the children of node 
+         * sequentially. Else calculate the row of every child, and fork a 
+         * task for every child that isn't pruned. Add the children that are 
+         * words within maxEdit to result. Join the tasks and add their 
+         * options to result. Count the nodes visited by this task and the 
+         * tasks it forked in visited. Return result.
+         *
+         * @return all words below node within maxEdit of userInput
+         */ 
+        protected ArrayList<String> compute() {
+            ArrayList<String> result = new ArrayList<String>();
+            TrieNode[] children = node.getChildren();
+            if (node.getSize() < PARALLEL_THRESHOLD) {
+                StringBuilder builder = new StringBuilder(sequence);
+                for (int i = 0; i < children.length; i++) {
+                    visited += searchNode(children[i], node.getValue(), userInput,
+                                          maxEdit, previousRow, row, builder,
+                                          result);
+                }
+                return result;
+            }
+
+            ArrayList<SearchTask> tasks = new ArrayList<SearchTask>();
+            for (int i = 0; i < children.length; i++) {
+                char letter = children[i].getValue();
+                int[] nextRow = new int[row.length];
+                int min = EditDistanceCalc.calcNextRow(userInput, letter, 
+                    node.getValue(), previousRow, row, nextRow);
+                visited++;
+                if (min > maxEdit) {
+                    continue;
+                }
+                String nextSequence = sequence + letter;
+                if (children[i].isWord() && nextRow[nextRow.length-1] <= maxEdit) {
+                    result.add(nextSequence);
+                }
+                SearchTask task = new SearchTask(children[i], nextSequence,
+                    userInput, maxEdit, row, nextRow);
+                task.fork();
+                tasks.add(task);
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                result.addAll(tasks.get(i).join());
+                visited += tasks.get(i).visited;
+            }
+            return result;
+        }
+    }
+}
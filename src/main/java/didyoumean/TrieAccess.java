@@ -0,0 +1,49 @@
+/**
+ * Read access to the nodes of a trie, whatever way they are stored: as 
+ * TrieNode objects of a Trie or as offsets in the snapshot of a MappedTrie.
+ * The letter of a child is asked from its parent, since a snapshot keeps the
+ * letters of the children in the parent.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+public interface TrieAccess<N> {
+
+    /**
+     * Takes an N node as input. Return the number of children of node.
+     *
+     * @param  node node to count the children of
+     * @return      number of children of node
+     */
+    int getChildCount(N node);
+
+    /**
+     * Takes an N node and an int index as input. Return the letter of the
+     * child at index of node, the children are sorted on their letter.
+     *
+     * @param  node  parent of the child
+     * @param  index index of the child in node
+     * @return       letter of the child
+     */
+    char getLetter(N node, int index);
+
+    /**
+     * Takes an N node and an int index as input. Return the child at index
+     * of node.
+     *
+     * @param  node  parent of the child
+     * @param  index index of the child in node
+     * @return       child at index of node
+     */
+    N getChildAt(N node, int index);
+
+    /**
+     * Takes an N node as input. Return true if node is the end of a word.
+     *
+     * @param  node node to check
+     * @return      true if node is the end of a word
+     */
+    boolean isWord(N node);
+}
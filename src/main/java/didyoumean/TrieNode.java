@@ -0,0 +1,277 @@
+/**
+ * Implementation of a node in a Trie
+ * 
+ * @author Joeri Sleegers
+ */ 
+
+package didyoumean;
+
+import java.util.*;
+
+public class TrieNode {
+
+    private static final char[] NO_LETTERS = new char[0];
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+    private static final String[] NO_COMPLETIONS = new String[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+    
+    char[] letters;
+    TrieNode[] children;
+    char value;
+    boolean word;
+    int size;
+    double weight;
+    String[] completions;
+    double[] completionWeights;
+    
+    /**
+     * Constructor of TrieNode. Initializes children.
+     */ 
+    public TrieNode() {
+        letters = NO_LETTERS;
+        children = NO_CHILDREN;
+        completions = NO_COMPLETIONS;
+        completionWeights = NO_WEIGHTS;
+    }
+    
+    /**
+     * Constructor of TrieNode. Takes a char letter as input. Initializes
+     * children. Set value to letter.
+     *
+     * @param letter letter to set the TrieNode to.
+     */ 
+    public TrieNode(char letter) {
+        this();
+        value = letter;
+    }
+    
+    /**
+     * Constructor of TrieNode. Takes a TrieNode node as input. Copy the 
+     * value, word, size and weight of node and share its children and 
+     * completions with it. The arrays are never changed in place, so the 
+     * copy can change its children without changing node.
+     *
+     * @param node TrieNode to copy
+     */ 
+    public TrieNode(TrieNode node) {
+        letters = node.letters;
+        children = node.children;
+        value = node.value;
+        word = node.word;
+        size = node.size;
+        weight = node.weight;
+        completions = node.completions;
+        completionWeights = node.completionWeights;
+    }
+    
+    /**
+     * Returns the children of the TrieNode, sorted on their value.
+     *
+     * @return Children of the trienode
+     */ 
+    public TrieNode[] getChildren() {
+        return children;
+    }
+    
+    /**
+     * Returns the value of the TrieNode.
+     *
+     * @return value of the TrieNode
+     */ 
+    public char getValue() {
+        return value;
+    }
+    
+    /**
+     * Takes a char letter as input. Binary search letters for letter. Return
+     * the child with that value, or null if there is none.
+     *
+     * @param  letter value of the child to find
+     * @return        child with value letter, null if there is none
+     */ 
+    public TrieNode getChild(char letter) {
+        int index = Arrays.binarySearch(letters, letter);
+        if (index < 0) {
+            return null;
+        }
+        return children[index];
+    }
+    
+    /**
+     * Takes a char letter as input. Create a new TrieNode newNode using
+     * letter. Insert newNode in children, keeping children sorted on value.
+     * The arrays are kept at the exact number of children, since most nodes
+     * have only one. Returns newnode.
+     *
+     * @param  letter letter to add to the Trie
+     * @return        TrieNode that was added to the Trie.
+     */ 
+    public TrieNode add(char letter) {
+        TrieNode newNode = new TrieNode(letter);
+        int index = -(Arrays.binarySearch(letters, letter) + 1);
+        int size = letters.length;
+
+        char[] newLetters = new char[size+1];
+        TrieNode[] newChildren = new TrieNode[size+1];
+        System.arraycopy(letters, 0, newLetters, 0, index);
+        System.arraycopy(children, 0, newChildren, 0, index);
+        System.arraycopy(letters, index, newLetters, index+1, size-index);
+        System.arraycopy(children, index, newChildren, index+1, size-index);
+        newLetters[index] = letter;
+        newChildren[index] = newNode;
+
+        letters = newLetters;
+        children = newChildren;
+        return newNode;
+    }
+    
+    /**
+     * Takes a TrieNode child as input. Replace the child with the value of 
+     * child by child. The arrays are copied, so a copy of the TrieNode that 
+     * shares them still has the old child.
+     *
+     * @param child child to replace the child with the same value with
+     */ 
+    public void setChild(TrieNode child) {
+        int index = Arrays.binarySearch(letters, child.getValue());
+        TrieNode[] newChildren = children.clone();
+        newChildren[index] = child;
+        children = newChildren;
+    }
+    
+    /**
+     * Takes a TrieNode[] newChildren, sorted on their value, as input. Make 
+     * them the children of the TrieNode, replacing the ones it had, and set
+     * letters to their values. 
+     *
+     * @param newChildren children sorted on their value
+     */ 
+    public void setChildren(TrieNode[] newChildren) {
+        char[] newLetters = newChildren.length == 0 ? NO_LETTERS
+                                                    : new char[newChildren.length];
+        for (int i = 0; i < newChildren.length; i++) {
+            newLetters[i] = newChildren[i].getValue();
+        }
+        letters = newLetters;
+        children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+    }
+    
+    /**
+     * Takes a char letter as input. Remove the child with value letter from
+     * children, if there is one. Like add, new arrays of the exact size are 
+     * created.
+     *
+     * @param letter value of the child to remove
+     */ 
+    public void remove(char letter) {
+        int index = Arrays.binarySearch(letters, letter);
+        if (index < 0) {
+            return;
+        }
+        int size = letters.length;
+
+        char[] newLetters = size == 1 ? NO_LETTERS : new char[size-1];
+        TrieNode[] newChildren = size == 1 ? NO_CHILDREN : new TrieNode[size-1];
+        System.arraycopy(letters, 0, newLetters, 0, index);
+        System.arraycopy(children, 0, newChildren, 0, index);
+        System.arraycopy(letters, index+1, newLetters, index, size-index-1);
+        System.arraycopy(children, index+1, newChildren, index, size-index-1);
+
+        letters = newLetters;
+        children = newChildren;
+    }
+    
+    /**
+     * Set word to True.
+     */ 
+    public void setWord() {
+        word = true;
+    }
+    
+    /**
+     * Set word to false.
+     */ 
+    public void unsetWord() {
+        word = false;
+    }
+    
+    /**
+     * Returns the weight of the word of the TrieNode.
+     *
+     * @return weight of the word ending at the TrieNode
+     */ 
+    public double getWeight() {
+        return weight;
+    }
+    
+    /**
+     * Takes a double newWeight as input. Set weight to newWeight.
+     *
+     * @param newWeight weight of the word ending at the TrieNode
+     */ 
+    public void setWeight(double newWeight) {
+        weight = newWeight;
+    }
+    
+    /**
+     * Returns the highest weight of a word below the TrieNode, which is the
+     * weight of its best completion, or 0 if there is no word below it.
+     *
+     * @return highest weight in the subtree of the TrieNode
+     */ 
+    public double getMaxWeight() {
+        return completionWeights.length == 0 ? 0 : completionWeights[0];
+    }
+    
+    /**
+     * Returns the best completions of the TrieNode: the words in its 
+     * subtree with the highest weights, best first.
+     *
+     * @return best words below the TrieNode
+     */ 
+    public String[] getCompletions() {
+        return completions;
+    }
+    
+    /**
+     * Returns the weights of the completions, in the same order.
+     *
+     * @return weights of the best words below the TrieNode
+     */ 
+    public double[] getCompletionWeights() {
+        return completionWeights;
+    }
+    
+    /**
+     * Takes a String[] newCompletions and a double[] newWeights as input. 
+     * Replace the completions and their weights. Like the children, the 
+     * arrays are replaced and never changed in place, so they can be shared
+     * with copies and with a child that has the same completions.
+     *
+     * @param newCompletions best words below the TrieNode, best first
+     * @param newWeights     weights of newCompletions
+     */ 
+    public void setCompletions(String[] newCompletions, double[] newWeights) {
+        completions = newCompletions;
+        completionWeights = newWeights;
+    }
+    
+    /**
+     * Returns the number of words in the subtree of the TrieNode, including
+     * the TrieNode itself.
+     *
+     * @return number of words below the TrieNode
+     */ 
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * Returns true is word is true else return false.
+     *
+     * @return Returns wether the node is a word or not.
+     */ 
+    public boolean isWord() {
+        return word;
+    }
+}
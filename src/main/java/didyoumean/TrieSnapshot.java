@@ -0,0 +1,127 @@
+/**
+ * Compiles a Trie into a flat binary snapshot which can be mapped into 
+ * memory by MappedTrie, so the dictionary doesn't have to be rebuilt from
+ * the list of URL's every time the program starts.
+ *
+ * The snapshot starts with a header of four ints: MAGIC, VERSION, the number
+ * of nodes and the offset of the top node, followed by the highest weight of
+ * any word as a double. After the header all nodes follow. A node is an int
+ * holding the number of children shifted left by one and one if the node is
+ * a word, the sorted letters of the children as chars padded to a multiple
+ * of four bytes, the offsets of the children as ints and, if the node is a
+ * word, its weight as a double. Children are written before their parent,
+ * so the top node is last.
+ *
+ * Usage: java didyoumean.TrieSnapshot [urlFile] [snapshotFile]
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.io.*;
+
+public class TrieSnapshot {
+
+    public static final int MAGIC = 0x44594D54;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 24;
+
+    private static final String URL_PATH = Reader.DATA_PATH + "URLs/";
+
+    private DataOutputStream out;
+    private int offset;
+    private int nodeCount;
+
+    public static void main(String[] args) {
+        String urlFile = URL_PATH + "governmentURLs.txt";
+        String snapshotFile = URL_PATH + "governmentURLs.trie";
+        if (args.length > 0) {
+            urlFile = args[0];
+        }
+        if (args.length > 1) {
+            snapshotFile = args[1];
+        }
+        Trie dictionary = new Reader().readInFile(urlFile);
+        new TrieSnapshot().write(dictionary, snapshotFile);
+    }
+
+    /**
+     * Takes a Trie dictionary and a String fileName as input. Write an empty
+     * header, write every node of dictionary children first. Then go back to
+     * the start of fileName and write the header with the number of nodes,
+     * the offset of the top node and the highest weight.
+     *
+     * @param dictionary Trie to write to fileName
+     * @param fileName   filename of the snapshot to write
+     */
+    public void write(Trie dictionary, String fileName) {
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(fileName), 1 << 16));
+            offset = HEADER_SIZE;
+            nodeCount = 0;
+            out.write(new byte[HEADER_SIZE]);
+            int topOffset = writeNode(dictionary.topNode);
+            out.close();
+
+            RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            file.writeInt(nodeCount);
+            file.writeInt(topOffset);
+            file.writeDouble(dictionary.getMaxWeight());
+            file.close();
+        } catch (IOException e) {
+            System.err.println("Error: " + e);
+        }
+    }
+
+    /**
+     * Takes a TrieNode node as input. Write all children of node, remember
+     * their offsets and then write node itself, with its weight if it is a
+     * word. Return the offset of node.
+     *
+     * @param  node node to write
+     * @return      offset of node in the snapshot
+     */
+    private int writeNode(TrieNode node) throws IOException {
+        TrieNode[] children = node.getChildren();
+        int[] childOffsets = new int[children.length];
+        for (int i = 0; i < children.length; i++) {
+            childOffsets[i] = writeNode(children[i]);
+        }
+
+        int nodeOffset = offset;
+        out.writeInt(children.length << 1 | (node.isWord() ? 1 : 0));
+        for (int i = 0; i < children.length; i++) {
+            out.writeChar(children[i].getValue());
+        }
+        if (children.length % 2 == 1) {
+            out.writeChar(0);
+        }
+        for (int i = 0; i < children.length; i++) {
+            out.writeInt(childOffsets[i]);
+        }
+        if (node.isWord()) {
+            out.writeDouble(node.getWeight());
+        }
+        offset += nodeSize(children.length, node.isWord());
+        nodeCount++;
+        return nodeOffset;
+    }
+
+    /**
+     * Takes an int childCount and a boolean word as input. Return the number
+     * of bytes a node with childCount children takes in the snapshot, with 
+     * a weight if word is true.
+     *
+     * @param  childCount number of children of the node
+     * @param  word       true if the node is a word
+     * @return            size of the node in bytes
+     */
+    public static int nodeSize(int childCount, boolean word) {
+        return 4 + (childCount + childCount % 2) * 2 + childCount * 4
+            + (word ? Double.BYTES : 0);
+    }
+}
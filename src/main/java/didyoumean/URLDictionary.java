@@ -0,0 +1,96 @@
+/**
+ * A dictionary of URL's which can check if it contains a URL and can find
+ * all the URL's within a given edit distance of a URL.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public interface URLDictionary {
+
+    /**
+     * Takes a String word as input. Return true if the dictionary contains
+     * word, false if it doesn't.
+     *
+     * @param  word word to be checked if the dictionary contains it
+     * @return      true if the dictionary contains word, false if it doesn't
+     */
+    boolean contains(String word);
+
+    /**
+     * Takes a String userInput and an int maxEdit as input. Return all words
+     * in the dictionary within maxEdit of userInput.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @return           all words in the dictionary within maxEdit of userInput
+     */
+    ArrayList<String> getOptions(String userInput, int maxEdit);
+
+    /**
+     * Takes a String userInput, an int maxEdit and a ForkJoinPool pool as
+     * input. Return the same options as getOptions. Dictionaries that can
+     * search parts of themselves as separate tasks in pool override it, 
+     * the others search on the current thread.
+     *
+     * @param  userInput input to find the options for
+     * @param  maxEdit   maximum edit distance between userInput and an option
+     * @param  pool      pool to run the tasks in
+     * @return           all words in the dictionary within maxEdit of userInput
+     */
+    default ArrayList<String> getOptions(String userInput, int maxEdit,
+                                         ForkJoinPool pool) {
+        return getOptions(userInput, maxEdit);
+    }
+
+    /**
+     * Takes a String word as input. Return the weight of word, the prior of
+     * it being meant. Dictionaries without weights give every word 
+     * Trie.DEFAULT_WEIGHT.
+     *
+     * @param  word word to get the weight of
+     * @return      weight of word
+     */
+    default double getWeight(String word) {
+        return Trie.DEFAULT_WEIGHT;
+    }
+
+    /**
+     * Returns the highest weight of any word in the dictionary, 
+     * Trie.DEFAULT_WEIGHT for dictionaries without weights.
+     *
+     * @return highest weight in the dictionary
+     */
+    default double getMaxWeight() {
+        return Trie.DEFAULT_WEIGHT;
+    }
+
+    /**
+     * Takes a String userInput, an int minEdit and an int maxEdit as input.
+     * Return the words within the lowest edit distance from minEdit up to
+     * maxEdit of userInput for which there are any, raising the edit 
+     * distance by one at a time and counting every raise in the QueryStats
+     * of the current thread. Return an empty list if there is no word within
+     * maxEdit. This searches the dictionary again for every edit distance, 
+     * dictionaries that can resume their search override it.
+     *
+     * @param  userInput input to find the options for
+     * @param  minEdit   edit distance to start with
+     * @param  maxEdit   highest edit distance to try
+     * @return           the nearest words in the dictionary, empty if none
+     *                   is within maxEdit
+     */
+    default ArrayList<String> getNearestOptions(String userInput, int minEdit,
+                                                int maxEdit) {
+        ArrayList<String> options = getOptions(userInput, minEdit);
+        for (int edit = minEdit + 1; options.isEmpty() && edit <= maxEdit; edit++) {
+            QueryStats.current().escalations++;
+            options = getOptions(userInput, edit);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * The parts of a URL: its scheme, the labels of its host, its public suffix
+ * and its path. The public suffix is the top level domain, together with the
+ * label before it when that is part of a country's own suffixes, like the
+ * states in ny.us or fed.us. A host that is an IP address or has no dot has
+ * no public suffix.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class URLParts {
+
+    private static final String SCHEME_SEPARATOR = "://";
+    private static final int COUNTRY_CODE_LENGTH = 2;
+    private static final Set<String> SECOND_LEVEL = Set.of(
+        "ac", "co", "com", "edu", "fed", "gov", "k12", "net", "org");
+
+    String scheme;
+    String[] labels;
+    String suffix;
+    String path;
+
+    /**
+     * Constructor of URLParts. Takes a String url as input. Split off the
+     * scheme and the path, split the host into its labels and find the
+     * public suffix of the host.
+     *
+     * @param url URL to split into its parts
+     */
+    public URLParts(String url) {
+        int start = url.indexOf(SCHEME_SEPARATOR);
+        scheme = start < 0 ? "" : url.substring(0, start);
+        start = start < 0 ? 0 : start + SCHEME_SEPARATOR.length();
+        int end = url.indexOf('/', start);
+        end = end < 0 ? url.length() : end;
+        path = url.substring(end);
+        String host = url.substring(start, end).toLowerCase();
+        labels = host.split("\\.", -1);
+        suffix = findSuffix(host, labels);
+    }
+
+    /**
+     * Takes a String url as input. Trim url and turn the scheme and the host
+     * into lower case, they don't depend on case, unlike the path. The host
+     * ends at the first slash after the scheme, or at a WEIGHT_SEPARATOR if 
+     * url is a line of a list with a weight. Return url itself if nothing 
+     * changes, so normalizing a URL that already is costs no allocation.
+     *
+     * @param  url URL to normalize
+     * @return     url trimmed, with its scheme and host in lower case
+     */
+    public static String normalize(String url) {
+        url = url.trim();
+        int start = url.indexOf(SCHEME_SEPARATOR);
+        start = start < 0 ? 0 : start + SCHEME_SEPARATOR.length();
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '/' 
+               && url.charAt(end) != Reader.WEIGHT_SEPARATOR) {
+            end++;
+        }
+        for (int i = 0; i < end; i++) {
+            if (Character.isUpperCase(url.charAt(i))) {
+                return url.substring(0, end).toLowerCase() + url.substring(end);
+            }
+        }
+        return url;
+    }
+
+    /**
+     * Takes a String host and its String[] labels as input. Return the
+     * public suffix of host, or the empty string if host is an IP address
+     * or a single label.
+     *
+     * @param  host   host of a URL
+     * @param  labels labels of host
+     * @return        public suffix of host
+     */
+    private static String findSuffix(String host, String[] labels) {
+        if (labels.length < 2 || isAddress(host)) {
+            return "";
+        }
+        String top = labels[labels.length-1];
+        String second = labels[labels.length-2];
+        if (labels.length > 2 && top.length() == COUNTRY_CODE_LENGTH
+            && (second.length() == COUNTRY_CODE_LENGTH
+                || SECOND_LEVEL.contains(second))) {
+            return second + "." + top;
+        }
+        return top;
+    }
+
+    /**
+     * Takes a String host as input. Return true if host only consists of
+     * digits and dots.
+     *
+     * @param  host host of a URL
+     * @return      true if host is an IP address
+     */
+    private static boolean isAddress(String host) {
+        for (int i = 0; i < host.length(); i++) {
+            char letter = host.charAt(i);
+            if (letter != '.' && (letter < '0' || letter > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the top level domain, the last label of the public suffix, or
+     * the empty string if there is no public suffix.
+     *
+     * @return top level domain of the URL
+     */
+    public String getTopLevelDomain() {
+        return suffix.substring(suffix.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Returns the scheme, the empty string if the URL has none.
+     *
+     * @return scheme of the URL
+     */
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * Returns the labels of the host.
+     *
+     * @return labels of the host
+     */
+    public String[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * Returns the public suffix of the host.
+     *
+     * @return public suffix of the host
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Returns the path, starting with its slash, the empty string if the
+     * URL has none.
+     *
+     * @return path of the URL
+     */
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Checks BKTree against a brute force scan of a random dictionary: built
+ * in bulk, searched in parallel and read back after it was written.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+public class BKTreeTest {
+
+    @Test
+    public void bkTree() {
+        ArrayList<String> words = BruteForce.words();
+        BruteForce.check(BKTree.fromWords(BruteForce.sorted(words)), words, 11);
+    }
+
+    @Test
+    public void parallelSearch() {
+        ArrayList<String> words = BruteForce.words();
+        BKTree tree = BKTree.fromWords(BruteForce.sorted(words));
+        RandomWords random = new RandomWords(12);
+        for (int i = 0; i < BruteForce.QUERIES; i++) {
+            String query = random.query(words);
+            int maxEdit = random.nextInt(BruteForce.MAX_EDIT + 1);
+            assertEquals(BruteForce.scan(words, query, maxEdit),
+                         BruteForce.sort(tree.getOptions(query, maxEdit,
+                             ForkJoinPool.commonPool())),
+                         query + " " + maxEdit);
+        }
+    }
+
+    @Test
+    public void writeAndRead(@TempDir Path directory) {
+        ArrayList<String> words = BruteForce.words();
+        String file = directory.resolve("words.bktree").toString();
+        BKTree.fromWords(BruteForce.sorted(words)).write(file);
+        BruteForce.check(new Reader().readInBKTreeSnapshot(file), words, 13);
+    }
+}
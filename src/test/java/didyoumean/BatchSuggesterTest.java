@@ -0,0 +1,114 @@
+/**
+ * Checks BatchSuggester on a random dictionary: with many workers the
+ * results have to be those of a single worker, in the order of the input
+ * if ordered is set, the URL's read may never run more than the window
+ * ahead of the results written, and a pool without threads is rejected.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import org.junit.jupiter.api.*;
+
+public class BatchSuggesterTest {
+
+    private static final int URLS = 2000;
+    private static final int THREADS = 4;
+
+    static DidYouMean didYouMean;
+    static String input;
+
+    @BeforeAll
+    public static void setup() {
+        ArrayList<String> words = BruteForce.words();
+        didYouMean = new DidYouMean();
+        didYouMean.dictionary = Trie.fromSorted(BruteForce.sorted(words));
+        didYouMean.cache = new SuggestionCache(100);
+        didYouMean.edCalc = new EditDistanceCalc();
+        didYouMean.probCalc = new ProbabillityCalc();
+        RandomWords random = new RandomWords(41);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < URLS; i++) {
+            lines.append(random.query(words)).append('\n');
+            if (i % 100 == 0) {
+                lines.append("  \n");
+            }
+        }
+        input = lines.toString();
+    }
+
+    /**
+     * Takes an int threads and a boolean ordered as input. Run a batch of
+     * input and return the result lines.
+     */
+    private List<String> run(int threads, boolean ordered) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BatchSuggester(didYouMean, threads, ordered).run(
+            new BufferedReader(new StringReader(input)),
+            new PrintStream(bytes, true));
+        return Arrays.asList(bytes.toString().split("\n"));
+    }
+
+    @Test
+    public void ordered() throws IOException {
+        List<String> expected = run(1, true);
+        assertEquals(URLS, expected.size());
+        String[] urls = input.split("\n");
+        int line = 0;
+        for (int i = 0; i < urls.length; i++) {
+            String url = urls[i].trim();
+            if (!url.isEmpty()) {
+                assertTrue(expected.get(line++).startsWith(url + "\t"), url);
+            }
+        }
+        assertEquals(expected, run(THREADS, true));
+        List<String> unordered = new ArrayList<String>(run(THREADS, false));
+        Collections.sort(unordered);
+        List<String> sorted = new ArrayList<String>(expected);
+        Collections.sort(sorted);
+        assertEquals(sorted, unordered);
+    }
+
+    @Test
+    public void readsAtMostTheWindowAhead() throws IOException {
+        int window = THREADS * BatchSuggester.WINDOW_PER_THREAD;
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger ahead = new AtomicInteger();
+        BufferedReader in = new BufferedReader(new StringReader(input)) {
+            @Override
+            public String readLine() throws IOException {
+                String line = super.readLine();
+                if (line != null && !line.trim().isEmpty()) {
+                    ahead.accumulateAndGet(read.incrementAndGet()
+                                           - written.get(), Math::max);
+                }
+                return line;
+            }
+        };
+        PrintStream out = new PrintStream(new ByteArrayOutputStream()) {
+            @Override
+            public void println(String line) {
+                written.incrementAndGet();
+            }
+        };
+        new BatchSuggester(didYouMean, THREADS, true).run(in, out);
+        assertEquals(URLS, read.get());
+        assertEquals(URLS, written.get());
+        assertTrue(ahead.get() <= window + 1, "ahead " + ahead.get());
+    }
+
+    @Test
+    public void needsThreads() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new BatchSuggester(didYouMean, 0, false));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new BatchSuggester(didYouMean, -1, true));
+    }
+}
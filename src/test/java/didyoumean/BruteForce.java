@@ -0,0 +1,135 @@
+/**
+ * Brute force checks shared by the tests of the dictionaries: a random
+ * dictionary of words, and a check of contains, getOptions and 
+ * getNearestOptions of a URLDictionary against a scan of every word with
+ * the full matrix of calcEditDistance.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+public class BruteForce {
+
+    public static final int WORDS = 1500;
+    public static final int QUERIES = 150;
+    public static final int MAX_EDIT = 4;
+
+    private static final EditDistanceCalc edCalc = new EditDistanceCalc();
+
+    /**
+     * Returns WORDS distinct random words, the same ones on every call.
+     *
+     * @return random words, in random order
+     */
+    public static ArrayList<String> words() {
+        return new RandomWords(42).words(WORDS);
+    }
+
+    /**
+     * Takes a Collection<String> words as input. Return words sorted, as
+     * the bulk builds of the dictionaries need them.
+     *
+     * @param  words words to sort
+     * @return       sorted array of words
+     */
+    public static String[] sorted(Collection<String> words) {
+        String[] sorted = words.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Takes a Collection<String> dictionary, a String userInput and an int
+     * maxEdit as input. Return the words of dictionary within maxEdit of
+     * userInput, sorted.
+     *
+     * @param  dictionary words to scan
+     * @param  userInput  input to find the options for
+     * @param  maxEdit    maximum edit distance of an option
+     * @return            words within maxEdit of userInput, sorted
+     */
+    public static List<String> scan(Collection<String> dictionary, 
+                                    String userInput, int maxEdit) {
+        ArrayList<String> result = new ArrayList<String>();
+        for (String word : dictionary) {
+            int[][] matrix = edCalc.calcEditDistance(userInput, word);
+            if (matrix[word.length()][userInput.length()] <= maxEdit) {
+                result.add(word);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Takes a Collection<String> dictionary, a String userInput, an int
+     * minEdit and an int maxEdit as input. Return the words of dictionary
+     * within the lowest edit distance from minEdit up to maxEdit that has
+     * any, sorted.
+     *
+     * @param  dictionary words to scan
+     * @param  userInput  input to find the options for
+     * @param  minEdit    edit distance to start at
+     * @param  maxEdit    highest edit distance to try
+     * @return            nearest words of userInput, sorted
+     */
+    public static List<String> scanNearest(Collection<String> dictionary,
+                                           String userInput, int minEdit,
+                                           int maxEdit) {
+        for (int edit = minEdit; edit <= maxEdit; edit++) {
+            List<String> result = scan(dictionary, userInput, edit);
+            if (!result.isEmpty()) {
+                return result;
+            }
+        }
+        return new ArrayList<String>();
+    }
+
+    /**
+     * Takes a List<String> options as input. Return a sorted copy of it.
+     *
+     * @param  options options to sort
+     * @return         sorted copy of options
+     */
+    public static List<String> sort(List<String> options) {
+        ArrayList<String> result = new ArrayList<String>(options);
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Takes a URLDictionary dictionary, a Collection<String> expected of the
+     * words it holds and a long seed as input. Check contains, getOptions
+     * and getNearestOptions of dictionary for random queries.
+     *
+     * @param dictionary dictionary to check
+     * @param expected   words dictionary should hold
+     * @param seed       seed of the random queries
+     */
+    public static void check(URLDictionary dictionary, 
+                             Collection<String> expected, long seed) {
+        RandomWords random = new RandomWords(seed);
+        ArrayList<String> list = new ArrayList<String>(expected);
+        for (int i = 0; i < QUERIES; i++) {
+            String word = list.get(random.nextInt(list.size()));
+            assertTrue(dictionary.contains(word), word);
+            String query = random.query(list);
+            assertEquals(expected.contains(query), dictionary.contains(query),
+                         query);
+            int maxEdit = random.nextInt(MAX_EDIT + 1);
+            assertEquals(scan(expected, query, maxEdit),
+                         sort(dictionary.getOptions(query, maxEdit)),
+                         query + " " + maxEdit);
+            int minEdit = random.nextInt(3);
+            assertEquals(scanNearest(expected, query, minEdit, MAX_EDIT),
+                         sort(dictionary.getNearestOptions(query, minEdit,
+                                                           MAX_EDIT)),
+                         query + " " + minEdit);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Checks the completions of Trie against a brute force scan of a random
+ * weighted dictionary: complete has to return the k best words starting
+ * with the prefix, and completeFuzzy with typo's the k best of the 
+ * COMPLETIONS best words below every prefix within the edit distance, 
+ * nearest first, also after the Trie is updated. A negative k or edit 
+ * distance is rejected.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+public class CompletionTest {
+
+    private static final int[] K = {0, 1, 3, Trie.COMPLETIONS, 20};
+    private static final int MAX_WEIGHT = 20;
+    private static final int CHANGES = 200;
+
+    private static final EditDistanceCalc edCalc = new EditDistanceCalc();
+
+    /**
+     * Takes a String word, its double weight, a String other and its double
+     * otherWeight as input. Order completions like Trie does: the highest
+     * weight first, then the shortest, then alphabetical.
+     */
+    private static int compare(String word, double weight, String other,
+                               double otherWeight) {
+        if (weight != otherWeight) {
+            return weight > otherWeight ? -1 : 1;
+        }
+        if (word.length() != other.length()) {
+            return word.length() - other.length();
+        }
+        return word.compareTo(other);
+    }
+
+    /**
+     * Takes a Map<String, Double> weights of the words as input. Return the
+     * words, best completion first.
+     */
+    private static List<String> ranked(Map<String, Double> weights) {
+        ArrayList<String> ranked = new ArrayList<String>(weights.keySet());
+        ranked.sort((word, other) -> compare(word, weights.get(word), other,
+                                             weights.get(other)));
+        return ranked;
+    }
+
+    /**
+     * Takes a Map<String, Double> weights of the words, a String prefix and
+     * an int k as input. Return the k best words starting with prefix.
+     */
+    private static List<String> complete(Map<String, Double> weights,
+                                         String prefix, int k) {
+        ArrayList<String> result = new ArrayList<String>();
+        for (String word : ranked(weights)) {
+            if (result.size() < k && word.startsWith(prefix)) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Takes a Map<String, Double> weights of the words, a String prefix, an
+     * int k and an int maxEdit as input. Without typo's, return the k best
+     * words starting with prefix. Else find the COMPLETIONS best words
+     * below every prefix of a word, give each the lowest edit distance
+     * between prefix and a prefix it is found below that is within
+     * maxEdit, and return the k best on their distance and then on their
+     * weight.
+     */
+    private static List<String> completeFuzzy(Map<String, Double> weights,
+                                              String prefix, int k,
+                                              int maxEdit) {
+        if (maxEdit == 0) {
+            return complete(weights, prefix, k);
+        }
+        HashMap<String, ArrayList<String>> best =
+            new HashMap<String, ArrayList<String>>();
+        for (String word : ranked(weights)) {
+            for (int i = 0; i <= word.length(); i++) {
+                ArrayList<String> below = best.computeIfAbsent(
+                    word.substring(0, i), key -> new ArrayList<String>());
+                if (below.size() < Trie.COMPLETIONS) {
+                    below.add(word);
+                }
+            }
+        }
+        HashMap<String, Integer> distances = new HashMap<String, Integer>();
+        for (Map.Entry<String, ArrayList<String>> entry : best.entrySet()) {
+            String start = entry.getKey();
+            int[][] matrix = edCalc.calcEditDistance(prefix, start);
+            int distance = matrix[start.length()][prefix.length()];
+            if (distance <= maxEdit) {
+                for (String word : entry.getValue()) {
+                    distances.merge(word, distance, Math::min);
+                }
+            }
+        }
+        ArrayList<String> result = new ArrayList<String>(distances.keySet());
+        result.sort((word, other) -> {
+            int order = distances.get(word) - distances.get(other);
+            if (order != 0) {
+                return order;
+            }
+            return compare(word, weights.get(word), other, weights.get(other));
+        });
+        return result.subList(0, Math.min(k, result.size()));
+    }
+
+    /**
+     * Takes a Trie trie, the Map<String, Double> weights of its words and a
+     * long seed as input. Check complete and completeFuzzy of trie against
+     * the brute force completions for random prefixes of words, with and
+     * without typo's.
+     */
+    private static void check(Trie trie, Map<String, Double> weights,
+                              long seed) {
+        RandomWords random = new RandomWords(seed);
+        ArrayList<String> list = new ArrayList<String>(weights.keySet());
+        Collections.sort(list);
+        for (int i = 0; i < BruteForce.QUERIES; i++) {
+            String word = list.get(random.nextInt(list.size()));
+            String prefix = word.substring(0, Math.min(word.length(),
+                                                       random.nextInt(5)));
+            int k = K[i % K.length];
+            assertEquals(complete(weights, prefix, k),
+                         trie.complete(prefix, k), prefix + " " + k);
+            String typed = random.typo(prefix, 1 + random.nextInt(2));
+            int maxEdit = random.nextInt(3);
+            assertEquals(completeFuzzy(weights, typed, k, maxEdit),
+                         trie.completeFuzzy(typed, k, maxEdit),
+                         typed + " " + k + " " + maxEdit);
+        }
+    }
+
+    @Test
+    public void completions() {
+        RandomWords random = new RandomWords(31);
+        String[] words = BruteForce.sorted(BruteForce.words());
+        double[] weights = new double[words.length];
+        HashMap<String, Double> expected = new HashMap<String, Double>();
+        for (int i = 0; i < words.length; i++) {
+            weights[i] = 1 + random.nextInt(MAX_WEIGHT);
+            expected.put(words[i], weights[i]);
+        }
+        Trie trie = Trie.fromSorted(words, weights);
+        check(trie, expected, 32);
+
+        ArrayList<String> removed = new ArrayList<String>();
+        ArrayList<String> added = new ArrayList<String>();
+        for (int i = 0; i < CHANGES; i++) {
+            removed.add(words[random.nextInt(words.length)]);
+            String word = random.word();
+            if (!expected.containsKey(word)) {
+                added.add(word);
+            }
+        }
+        Trie updated = trie.update(removed, added);
+        HashMap<String, Double> changed = new HashMap<String, Double>(expected);
+        changed.keySet().removeAll(removed);
+        for (String word : added) {
+            changed.put(word, Trie.DEFAULT_WEIGHT);
+        }
+        check(updated, changed, 33);
+        check(trie, expected, 34);
+    }
+
+    @Test
+    public void rejectsNegativeArguments() {
+        Trie trie = Trie.fromSorted(BruteForce.sorted(BruteForce.words()));
+        assertThrows(IllegalArgumentException.class,
+                     () -> trie.complete("a", -1));
+        assertThrows(IllegalArgumentException.class,
+                     () -> trie.completeFuzzy("a", -1, 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> trie.completeFuzzy("a", -1, 2));
+        assertThrows(IllegalArgumentException.class,
+                     () -> trie.completeFuzzy("a", 3, -1));
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Checks the Trie against a brute force scan of a random dictionary:
+ * getOptions has to return exactly the words within maxEdit by the full 
+ * matrix of calcEditDistance, and getNearestOptions exactly those of the 
+ * lowest edit distance that has any. The other dictionaries have their own
+ * tests with the same checks of BruteForce.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+public class DictionaryTest {
+
+    @Test
+    public void trie() {
+        ArrayList<String> words = BruteForce.words();
+        BruteForce.check(Trie.fromSorted(BruteForce.sorted(words)), words, 1);
+        Trie inserted = new Trie();
+        for (String word : words) {
+            inserted.put(word);
+        }
+        BruteForce.check(inserted, words, 2);
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Checks every edit distance kernel of EditDistanceCalc against the full
+ * matrix of calcEditDistance on random strings.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+public class EditDistanceCalcTest {
+
+    private static final int PAIRS = 20000;
+    private static final int MAX_EDIT = 8;
+
+    EditDistanceCalc edCalc = new EditDistanceCalc();
+
+    /**
+     * Takes a String string1 and a String string2 as input. Return the
+     * bottom right field of the matrix of calcEditDistance.
+     */
+    private int fullDistance(String string1, String string2) {
+        int[][] matrix = edCalc.calcEditDistance(string1, string2);
+        return matrix[string2.length()][string1.length()];
+    }
+
+    @Test
+    public void bandedAgreesWithMatrix() {
+        RandomWords random = new RandomWords(1);
+        for (int i = 0; i < PAIRS; i++) {
+            String string1 = random.word();
+            String string2 = random.nextInt(2) == 0 ? random.word()
+                : random.typo(string1, 1 + random.nextInt(4));
+            int expected = fullDistance(string1, string2);
+            assertEquals(expected, edCalc.editDistance(string1, string2),
+                         string1 + " " + string2);
+            for (int maxEdit = 0; maxEdit <= MAX_EDIT; maxEdit++) {
+                assertEquals(Math.min(expected, maxEdit + 1),
+                             edCalc.editDistance(string1, string2, maxEdit),
+                             string1 + " " + string2 + " " + maxEdit);
+            }
+        }
+    }
+
+    @Test
+    public void bitParallelAgreesWithMatrix() {
+        RandomWords random = new RandomWords(2);
+        for (int i = 0; i < PAIRS; i++) {
+            String pattern = random.word();
+            String text = random.nextInt(2) == 0 ? random.word()
+                : random.typo(pattern, 1 + random.nextInt(4));
+            long[] masks = edCalc.calcPatternMasks(pattern);
+            int expected = fullDistance(pattern, text);
+            for (int maxEdit = 0; maxEdit <= MAX_EDIT; maxEdit++) {
+                assertEquals(Math.min(expected, maxEdit + 1),
+                             edCalc.editDistance(pattern, masks, text, maxEdit),
+                             pattern + " " + text + " " + maxEdit);
+            }
+        }
+    }
+
+    @Test
+    public void bitParallelFallsBackForLongPatterns() {
+        RandomWords random = new RandomWords(3);
+        for (int i = 0; i < 200; i++) {
+            String pattern = random.word(65 + random.nextInt(40));
+            String text = random.typo(pattern, 1 + random.nextInt(6));
+            assertNull(edCalc.calcPatternMasks(pattern));
+            assertEquals(Math.min(fullDistance(pattern, text), MAX_EDIT + 1),
+                         edCalc.editDistance(pattern, null, text, MAX_EDIT));
+        }
+    }
+
+    @Test
+    public void nextRowAgreesWithMatrix() {
+        RandomWords random = new RandomWords(4);
+        for (int i = 0; i < PAIRS; i++) {
+            String input = random.word();
+            String sequence = random.typo(input, 1 + random.nextInt(4));
+            int[] previousRow = null;
+            int[] row = new int[input.length() + 1];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = j;
+            }
+            char previousLetter = ' ';
+            for (int j = 0; j < sequence.length(); j++) {
+                int[] nextRow = new int[row.length];
+                EditDistanceCalc.calcNextRow(input, sequence.charAt(j),
+                    previousLetter, previousRow, row, nextRow);
+                previousRow = row;
+                row = nextRow;
+                previousLetter = sequence.charAt(j);
+            }
+            assertEquals(fullDistance(input, sequence), row[row.length-1],
+                         input + " " + sequence);
+        }
+    }
+
+    /**
+     * Takes a String a and a String b as input. Return the unrestricted
+     * Damerau-Levenshtein distance between them, from the matrix of 
+     * Lowrance and Wagner with the last rows of the charachters in a map.
+     */
+    private int fullDamerauDistance(String a, String b) {
+        int infinity = a.length() + b.length();
+        int[][] matrix = new int[a.length() + 2][b.length() + 2];
+        matrix[0][0] = infinity;
+        for (int i = 0; i <= a.length(); i++) {
+            matrix[i+1][0] = infinity;
+            matrix[i+1][1] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            matrix[0][j+1] = infinity;
+            matrix[1][j+1] = j;
+        }
+        HashMap<Character, Integer> lastRows = 
+            new HashMap<Character, Integer>();
+        for (int i = 1; i <= a.length(); i++) {
+            int lastColumn = 0;
+            for (int j = 1; j <= b.length(); j++) {
+                int lastRow = lastRows.getOrDefault(b.charAt(j-1), 0);
+                int column = lastColumn;
+                int cost = 1;
+                if (a.charAt(i-1) == b.charAt(j-1)) {
+                    cost = 0;
+                    lastColumn = j;
+                }
+                matrix[i+1][j+1] = Math.min(Math.min(matrix[i][j] + cost,
+                    matrix[i+1][j] + 1), Math.min(matrix[i][j+1] + 1,
+                    matrix[lastRow][column] + (i - lastRow - 1) + 1 
+                    + (j - column - 1)));
+            }
+            lastRows.put(a.charAt(i-1), i);
+        }
+        return matrix[a.length()+1][b.length()+1];
+    }
+
+    @Test
+    public void damerauDistanceAgreesWithMatrix() {
+        RandomWords random = new RandomWords(6);
+        for (int i = 0; i < PAIRS; i++) {
+            String a = random.nextInt(10) == 0 ? "" : random.word();
+            String b = random.nextInt(2) == 0 ? random.word()
+                : random.typo(a + "x", 1 + random.nextInt(4));
+            assertEquals(fullDamerauDistance(a, b),
+                         edCalc.damerauDistance(a, b), a + " " + b);
+        }
+        String wide = "\u0101\u0201\u0301\u4e00\uffff\u0000";
+        assertEquals(fullDamerauDistance(wide, "\u0201\u0101\u0000\uffff"),
+                     edCalc.damerauDistance(wide, "\u0201\u0101\u0000\uffff"));
+    }
+
+    @Test
+    public void damerauDistanceIsAMetricBelowEditDistance() {
+        RandomWords random = new RandomWords(5);
+        assertEquals(2, edCalc.damerauDistance("ca", "abc"));
+        assertEquals(3, edCalc.editDistance("ca", "abc"));
+        for (int i = 0; i < PAIRS; i++) {
+            String a = random.word();
+            String b = random.typo(a, 1 + random.nextInt(4));
+            String c = random.typo(b, 1 + random.nextInt(4));
+            int ab = edCalc.damerauDistance(a, b);
+            assertEquals(ab, edCalc.damerauDistance(b, a));
+            assertEquals(0, edCalc.damerauDistance(a, a));
+            assertTrue(ab <= fullDistance(a, b), a + " " + b);
+            assertTrue(edCalc.damerauDistance(a, c)
+                       <= ab + edCalc.damerauDistance(b, c), a + " " + b + " " + c);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Checks a MappedTrie of a snapshot written by TrieSnapshot against a 
+ * brute force scan of a random dictionary.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+public class MappedTrieTest {
+
+    @Test
+    public void mappedTrie(@TempDir Path directory) throws IOException {
+        ArrayList<String> words = BruteForce.words();
+        String snapshot = directory.resolve("words.trie").toString();
+        new TrieSnapshot().write(Trie.fromSorted(BruteForce.sorted(words)),
+                                 snapshot);
+        BruteForce.check(new Reader().readInSnapshot(snapshot), words, 7);
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Checks OffHeapTrie against a brute force scan of a random dictionary,
+ * built in bulk and by inserting the words one by one.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+public class OffHeapTrieTest {
+
+    @Test
+    public void fromSorted() {
+        ArrayList<String> words = BruteForce.words();
+        BruteForce.check(OffHeapTrie.fromSorted(BruteForce.sorted(words)), 
+                         words, 14);
+    }
+
+    @Test
+    public void inserted() {
+        ArrayList<String> words = BruteForce.words();
+        OffHeapTrie inserted = new OffHeapTrie();
+        for (String word : words) {
+            inserted.put(word);
+        }
+        BruteForce.check(inserted, words, 15);
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Checks the parallel getOptions of the Trie against a brute force scan of
+ * a random dictionary, on the common ForkJoinPool and on a pool of a 
+ * single thread.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+
+public class ParallelSearchTest {
+
+    /**
+     * Takes a ForkJoinPool pool and a long seed as input. Check getOptions 
+     * of a Trie on pool for random queries.
+     */
+    private void check(ForkJoinPool pool, long seed) {
+        ArrayList<String> words = BruteForce.words();
+        Trie trie = Trie.fromSorted(BruteForce.sorted(words));
+        RandomWords random = new RandomWords(seed);
+        for (int i = 0; i < BruteForce.QUERIES; i++) {
+            String query = random.query(words);
+            int maxEdit = random.nextInt(BruteForce.MAX_EDIT + 1);
+            assertEquals(BruteForce.scan(words, query, maxEdit),
+                         BruteForce.sort(trie.getOptions(query, maxEdit, pool)),
+                         query + " " + maxEdit);
+        }
+    }
+
+    @Test
+    public void commonPool() {
+        check(ForkJoinPool.commonPool(), 3);
+    }
+
+    @Test
+    public void singleThread() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            check(pool, 18);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
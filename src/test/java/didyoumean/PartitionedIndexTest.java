@@ -0,0 +1,36 @@
+/**
+ * Checks PartitionedIndex against a brute force scan of a random 
+ * dictionary. A query is only routed to some partitions, so its options 
+ * only have to be words within the edit distance, but it has to find some
+ * whenever there are any, since the other partitions are searched then.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+public class PartitionedIndexTest {
+
+    @Test
+    public void partitionedIndex() {
+        ArrayList<String> words = BruteForce.words();
+        PartitionedIndex index = new PartitionedIndex(words);
+        RandomWords random = new RandomWords(16);
+        for (int i = 0; i < BruteForce.QUERIES; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            assertTrue(index.contains(word), word);
+            String query = random.query(words);
+            int maxEdit = random.nextInt(BruteForce.MAX_EDIT + 1);
+            List<String> expected = BruteForce.scan(words, query, maxEdit);
+            List<String> options = 
+                BruteForce.sort(index.getOptions(query, maxEdit));
+            assertTrue(expected.containsAll(options), query);
+            assertEquals(expected.isEmpty(), options.isEmpty(), query);
+        }
+    }
+}
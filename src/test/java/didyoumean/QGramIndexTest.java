@@ -0,0 +1,26 @@
+/**
+ * Checks QGramIndex, and HybridIndex routing queries between it and the 
+ * Trie, against a brute force scan of a random dictionary.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+public class QGramIndexTest {
+
+    @Test
+    public void qGramIndex() {
+        ArrayList<String> words = BruteForce.words();
+        BruteForce.check(new QGramIndex(words), words, 9);
+    }
+
+    @Test
+    public void hybridIndex() {
+        ArrayList<String> words = BruteForce.words();
+        BruteForce.check(new HybridIndex(words), words, 10);
+    }
+}
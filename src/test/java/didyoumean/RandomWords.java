@@ -0,0 +1,122 @@
+/**
+ * Random words and typos for the tests. The alphabet is small, so random
+ * words have many neighbours within a few edits and transpositions of
+ * equal letters happen often.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+
+public class RandomWords {
+
+    private static final String ALPHABET = "abc.-/";
+    private static final int MAX_LENGTH = 14;
+
+    private final Random random;
+
+    /**
+     * Constructor of RandomWords. Takes a long seed as input.
+     *
+     * @param seed seed of the random generator
+     */
+    public RandomWords(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Returns a random word of 1 up to MAX_LENGTH charachters.
+     *
+     * @return random word
+     */
+    public String word() {
+        return word(1 + random.nextInt(MAX_LENGTH));
+    }
+
+    /**
+     * Takes an int length as input. Return a random word of length
+     * charachters.
+     *
+     * @param  length length of the word
+     * @return        random word
+     */
+    public String word(int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+
+    /**
+     * Takes an int count as input. Return count distinct random words.
+     *
+     * @param  count number of words
+     * @return       distinct random words, in random order
+     */
+    public ArrayList<String> words(int count) {
+        LinkedHashSet<String> words = new LinkedHashSet<String>();
+        while (words.size() < count) {
+            words.add(word());
+        }
+        return new ArrayList<String>(words);
+    }
+
+    /**
+     * Takes a String word and an int edits as input. Return word with edits
+     * random insertions, deletions, substitutions and transpositions.
+     *
+     * @param  word  word to make a typo of
+     * @param  edits number of edits
+     * @return       typo of word
+     */
+    public String typo(String word, int edits) {
+        StringBuilder typo = new StringBuilder(word);
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(typo.length() + 1);
+            char letter = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            int edit = typo.length() < 2 ? 0 : random.nextInt(4);
+            if (edit == 0) {
+                typo.insert(position, letter);
+            } else if (position >= typo.length() - 1) {
+                typo.deleteCharAt(typo.length() - 1);
+            } else if (edit == 1) {
+                typo.deleteCharAt(position);
+            } else if (edit == 2) {
+                typo.setCharAt(position, letter);
+            } else {
+                char first = typo.charAt(position);
+                typo.setCharAt(position, typo.charAt(position + 1));
+                typo.setCharAt(position + 1, first);
+            }
+        }
+        return typo.toString();
+    }
+
+    /**
+     * Takes an ArrayList<String> words as input. Return a typo of one to
+     * four edits of a random word of words, or a random word.
+     *
+     * @param  words words to make typos of
+     * @return       random query
+     */
+    public String query(List<String> words) {
+        if (random.nextInt(5) == 0) {
+            return word();
+        }
+        return typo(words.get(random.nextInt(words.size())),
+                    1 + random.nextInt(4));
+    }
+
+    /**
+     * Takes an int bound as input. Return a random int from 0 up to bound.
+     *
+     * @param  bound bound of the int, exclusive
+     * @return       random int
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Checks ShardedDictionary against a brute force scan of a random
+ * dictionary split over a directory of lists: the gathered results of all
+ * shards and those of some of them, reloading and updating a single shard,
+ * and that a reload of a name that isn't a shard, or of a list that can't
+ * be read, leaves the shards as they were.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+public class ShardedDictionaryTest {
+
+    private static final String[] NAMES = {"a", "b", "c"};
+
+    @TempDir
+    Path directory;
+
+    private ShardedDictionary sharded;
+    private ArrayList<String> words;
+    private HashMap<String, List<String>> lists;
+
+    @BeforeEach
+    public void loadShards() throws IOException {
+        words = BruteForce.words();
+        lists = new HashMap<String, List<String>>();
+        for (int i = 0; i < NAMES.length; i++) {
+            lists.put(NAMES[i], new ArrayList<String>());
+        }
+        for (int i = 0; i < words.size(); i++) {
+            lists.get(NAMES[i % NAMES.length]).add(words.get(i));
+        }
+        for (String name : NAMES) {
+            write(name, lists.get(name));
+        }
+        sharded = new ShardedDictionary(NAMES.length);
+        sharded.loadDirectory(directory.toString());
+    }
+
+    private void write(String name, List<String> list) throws IOException {
+        Files.write(directory.resolve(name + ".txt"), list);
+    }
+
+    @Test
+    public void scatterGather() {
+        assertEquals(new TreeSet<String>(Arrays.asList(NAMES)),
+                     sharded.getNames());
+        BruteForce.check(sharded, words, 17);
+        List<String> some = Arrays.asList("a", "c", "missing");
+        for (String word : words) {
+            assertEquals(lists.get("a").contains(word)
+                         || lists.get("c").contains(word),
+                         sharded.contains(word, some), word);
+        }
+    }
+
+    @Test
+    public void reload() throws IOException {
+        ArrayList<String> changed = new ArrayList<String>(lists.get("b"));
+        String removed = changed.remove(0);
+        changed.add("nasa.gov");
+        write("b", changed);
+        sharded.reload("b", directory.toString());
+        words.remove(removed);
+        words.add("nasa.gov");
+        BruteForce.check(sharded, words, 18);
+    }
+
+    @Test
+    public void reloadKeepsShards() throws IOException {
+        Files.write(directory.getParent().resolve("x.txt"),
+                    Arrays.asList("outside.gov"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> sharded.reload("d", directory.toString()));
+        assertThrows(IllegalArgumentException.class,
+                     () -> sharded.reload("../x", directory.toString()));
+        assertThrows(IllegalArgumentException.class,
+                     () -> sharded.reload("..\\x", directory.toString()));
+        Files.delete(directory.resolve("b.txt"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> sharded.reload("b", directory.toString()));
+        assertEquals(new TreeSet<String>(Arrays.asList(NAMES)),
+                     sharded.getNames());
+        assertFalse(sharded.contains("outside.gov"));
+        BruteForce.check(sharded, words, 19);
+    }
+
+    @Test
+    public void update() {
+        String removed = lists.get("c").get(0);
+        sharded.update("c", Arrays.asList(removed),
+                       Arrays.asList("nasa.gov"));
+        words.remove(removed);
+        words.add("nasa.gov");
+        BruteForce.check(sharded, words, 20);
+        assertTrue(sharded.contains("nasa.gov", Arrays.asList("c")));
+        assertFalse(sharded.contains("nasa.gov", Arrays.asList("a", "b")));
+        assertThrows(IllegalArgumentException.class,
+                     () -> sharded.update("d", Arrays.asList(removed),
+                                          Arrays.asList("nasa.gov")));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Checks SuggestionCache: URL's that only differ in the case of their host
+ * or in whitespace are the same key, the cache stays within its size and
+ * its counters add up when many threads use it at once, and Suggestions
+ * searched before an invalidation are not kept.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+
+public class SuggestionCacheTest {
+
+    private static final int SIZE = 1000;
+    private static final int THREADS = 8;
+    private static final int LOOKUPS = 20000;
+
+    private static Suggestions suggestions(String url) {
+        return new Suggestions(url, false, new ArrayList<String>());
+    }
+
+    @Test
+    public void normalizesKeys() {
+        SuggestionCache cache = new SuggestionCache(SIZE);
+        Suggestions cached = suggestions("nasa.gov/Mars");
+        cache.put("  NASA.gov/Mars ", cached, cache.getGeneration());
+        assertSame(cached, cache.get("nasa.gov/Mars"));
+        assertSame(cached, cache.get("\tNasa.Gov/Mars\n"));
+        assertNull(cache.get("nasa.gov/mars"));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals("http://nasa.gov/Mars",
+                     URLParts.normalize("HTTP://NASA.gov/Mars"));
+        assertEquals("nasa.gov\t5", URLParts.normalize("NASA.gov\t5"));
+    }
+
+    @Test
+    public void ignoresOldGenerations() {
+        SuggestionCache cache = new SuggestionCache(SIZE);
+        long generation = cache.getGeneration();
+        cache.invalidateAll();
+        cache.put("nasa.gov", suggestions("nasa.gov"), generation);
+        assertNull(cache.get("nasa.gov"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void staysBoundedUnderConcurrentUse() throws Exception {
+        SuggestionCache cache = new SuggestionCache(SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < THREADS; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> {
+                RandomWords random = new RandomWords(seed);
+                for (int j = 0; j < LOOKUPS; j++) {
+                    String url = random.word(1 + random.nextInt(4));
+                    if (cache.get(url) == null) {
+                        cache.put(url, suggestions(url),
+                                  cache.getGeneration());
+                    }
+                    if (j % 5000 == 0) {
+                        cache.invalidateAll();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(cache.size() <= SIZE, cache.toString());
+        assertEquals((long) THREADS * LOOKUPS,
+                     cache.getHits() + cache.getMisses());
+        assertTrue(cache.getHits() > 0, cache.toString());
+    }
+}
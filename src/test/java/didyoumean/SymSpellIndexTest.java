@@ -0,0 +1,21 @@
+/**
+ * Checks SymSpellIndex against a brute force scan of a random dictionary,
+ * also for edit distances above the number of deletions it stores.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+public class SymSpellIndexTest {
+
+    @Test
+    public void symSpellIndex() {
+        ArrayList<String> words = BruteForce.words();
+        BruteForce.check(new SymSpellIndex(words, 2), words, 8);
+        BruteForce.check(new SymSpellIndex(words, 1), words, 17);
+    }
+}
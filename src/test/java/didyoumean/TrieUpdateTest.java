@@ -0,0 +1,49 @@
+/**
+ * Checks updating the Trie with path copying: the updated Trie has to 
+ * match a brute force scan of the changed words, and the Trie it was made
+ * from has to stay as it was. Engines other than the trie can't be updated.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+public class TrieUpdateTest {
+
+    @Test
+    public void updatedTrie() {
+        ArrayList<String> words = BruteForce.words();
+        Trie trie = Trie.fromSorted(BruteForce.sorted(words));
+        RandomWords random = new RandomWords(4);
+        ArrayList<String> removed = new ArrayList<String>();
+        ArrayList<String> added = new ArrayList<String>();
+        for (int i = 0; i < 200; i++) {
+            removed.add(words.get(random.nextInt(words.size())));
+            added.add(random.word());
+        }
+        Trie updated = trie.update(removed, added);
+        TreeSet<String> expected = new TreeSet<String>(words);
+        expected.removeAll(removed);
+        expected.addAll(added);
+        BruteForce.check(updated, expected, 5);
+        BruteForce.check(trie, words, 6);
+    }
+
+    @Test
+    public void otherEnginesAreNotUpdated() {
+        ArrayList<String> words = BruteForce.words();
+        DidYouMean didYouMean = new DidYouMean();
+        didYouMean.engine = "symspell";
+        didYouMean.dictionary = new SymSpellIndex(words, 2);
+        didYouMean.cache = new SuggestionCache(10);
+        URLDictionary before = didYouMean.dictionary;
+        assertThrows(IllegalArgumentException.class, 
+            () -> didYouMean.update(List.of(words.get(0)), List.of("a.b")));
+        assertSame(before, didYouMean.dictionary);
+    }
+}
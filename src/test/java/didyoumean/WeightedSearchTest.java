@@ -0,0 +1,131 @@
+/**
+ * Checks the weighted search of Trie against an exhaustive scan: every word
+ * of a random weighted dictionary is scored by the logarithm of its weight
+ * minus its cost from the cost rows of ProbabillityCalc, and the k best of
+ * them have to be the options getWeightedOptions returns, in order.
+ *
+ * @author Joeri Sleegers
+ */
+
+package didyoumean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+public class WeightedSearchTest {
+
+    private static final int WORDS = 1500;
+    private static final int QUERIES = 300;
+    private static final int[] K = {1, 3, 10};
+    private static final int MAX_ABSENT = 20;
+
+    static ProbabillityCalc probCalc;
+
+    @BeforeAll
+    public static void setup() {
+        probCalc = new ProbabillityCalc();
+    }
+
+    /**
+     * Takes a String word and a String userInput as input. Return the cost
+     * of typing userInput when word was meant, from the cost rows along
+     * word.
+     */
+    private double cost(String word, String userInput) {
+        double[] previousRow = null;
+        double[] row = probCalc.calcFirstCostRow(userInput);
+        char previousLetter = ' ';
+        for (int i = 0; i < word.length(); i++) {
+            double[] nextRow = new double[row.length];
+            probCalc.calcNextCostRow(userInput, word.charAt(i), previousLetter,
+                                     previousRow, row, nextRow);
+            previousRow = row;
+            row = nextRow;
+            previousLetter = word.charAt(i);
+        }
+        return row[row.length-1];
+    }
+
+    /**
+     * Takes a String[] words, their double[] weights, a String userInput
+     * and an int k as input. Score every word and return the k best, best
+     * first.
+     */
+    private List<String> scan(String[] words, double[] weights,
+                              String userInput, int k) {
+        Integer[] order = new Integer[words.length];
+        double[] scores = new double[words.length];
+        for (int i = 0; i < words.length; i++) {
+            order[i] = i;
+            scores[i] = Math.log(weights[i]) - cost(words[i], userInput);
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        ArrayList<String> best = new ArrayList<String>();
+        for (int i = 0; i < Math.min(k, words.length); i++) {
+            best.add(words[order[i]]);
+        }
+        return best;
+    }
+
+    /**
+     * Takes a long seed and a boolean skewed as input. Build a Trie of
+     * random words with random weights, heavy tailed if skewed, and check
+     * getWeightedOptions against scan for random queries.
+     */
+    private void check(long seed, boolean skewed) {
+        RandomWords random = new RandomWords(seed);
+        ArrayList<String> list = random.words(WORDS);
+        String[] words = list.toArray(new String[0]);
+        Arrays.sort(words);
+        Random weightRandom = new Random(seed);
+        double[] weights = new double[words.length];
+        for (int i = 0; i < words.length; i++) {
+            double uniform = 1 - weightRandom.nextDouble();
+            weights[i] = skewed ? 1 / (uniform * uniform) : 1 + uniform;
+        }
+        Trie trie = Trie.fromSorted(words, weights);
+        for (int i = 0; i < QUERIES; i++) {
+            String query = random.query(list);
+            int k = K[i % K.length];
+            assertEquals(scan(words, weights, query, k),
+                         trie.getWeightedOptions(query, k, probCalc),
+                         query + " " + k);
+        }
+    }
+
+    @Test
+    public void uniformWeights() {
+        check(21, false);
+    }
+
+    @Test
+    public void skewedWeights() {
+        check(22, true);
+    }
+
+    @Test
+    public void snapshotKeepsWeights(@TempDir Path directory)
+            throws IOException {
+        RandomWords random = new RandomWords(23);
+        String[] words = random.words(WORDS).toArray(new String[0]);
+        Arrays.sort(words);
+        double[] weights = new double[words.length];
+        for (int i = 0; i < words.length; i++) {
+            weights[i] = 1 + random.nextInt(1000);
+        }
+        Trie trie = Trie.fromSorted(words, weights);
+        String snapshot = directory.resolve("words.trie").toString();
+        new TrieSnapshot().write(trie, snapshot);
+        MappedTrie mapped = new Reader().readInSnapshot(snapshot);
+        assertEquals(trie.getMaxWeight(), mapped.getMaxWeight());
+        for (int i = 0; i < words.length; i++) {
+            assertEquals(weights[i], mapped.getWeight(words[i]), words[i]);
+        }
+        assertEquals(0, mapped.getWeight(random.word(MAX_ABSENT)));
+    }
+}